@@ -0,0 +1,34 @@
+package com.github.tommyettinger.iconizer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A Java Flight Recorder event for one finished stage of making an icon, as timed by
+ * {@link com.github.tommyettinger.iconizer.IconMetrics}. The stage is timed before this event is created, so its time
+ * is in {@link #nanos} rather than in the event's own duration. Stack traces are off by default, since these can be
+ * recorded many thousands of times a second.
+ */
+@Name("com.github.tommyettinger.iconizer.Stage")
+@Label("Icon Stage")
+@Category({"iconizer-gdx"})
+@Description("One stage of generating an icon finished")
+@StackTrace(false)
+public final class IconStageEvent extends jdk.jfr.Event {
+    /**
+     * The name of the {@link com.github.tommyettinger.iconizer.IconMetrics.Stage}, such as "DRAW".
+     */
+    @Label("Stage")
+    public String stage;
+
+    /**
+     * How long the stage took.
+     */
+    @Label("Stage Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long nanos;
+}
@@ -0,0 +1,28 @@
+package com.github.tommyettinger.iconizer.jfr;
+
+import com.github.tommyettinger.iconizer.IconMetrics;
+
+/**
+ * An {@link IconMetrics.Listener} that commits an {@link IconStageEvent} for every stage, when a Flight Recorder
+ * recording has that event enabled; otherwise, it does almost nothing. This is registered as a service, so
+ * IconMetrics adds it automatically when this module is on the classpath. Stages are only timed while
+ * {@link IconMetrics#isEnabled()} is true, so start the JVM with {@code -Diconizer.metrics=true} as well as a
+ * recording, such as with {@code -XX:StartFlightRecording}.
+ */
+public final class JfrStageListener implements IconMetrics.Listener {
+    /**
+     * Called by {@link java.util.ServiceLoader}; there's no need to create or add one of these yourself.
+     */
+    public JfrStageListener() {
+    }
+
+    @Override
+    public void stageFinished(IconMetrics.Stage stage, long nanos) {
+        final IconStageEvent event = new IconStageEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage.name();
+            event.nanos = nanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures whole-icon generation at several sizes. The warm benchmarks reuse one Iconizer, so its pools are full;
+ * the cold ones use a new Iconizer for every call, and are measured as single shots.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerateBenchmark {
+    @Param({"32", "72", "128", "512"})
+    public int size;
+
+    private Iconizer iconizer;
+    private IconCompositor compositor;
+    private Pixmap target;
+    private int[] pixels;
+    private long seed;
+
+    @State(Scope.Thread)
+    public static class Cold {
+        Iconizer iconizer;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            Headless.start();
+            iconizer = new Iconizer();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            iconizer.dispose();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Headless.start();
+        iconizer = new Iconizer();
+        compositor = new IconCompositor();
+        target = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        pixels = new int[size * size];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        target.dispose();
+        iconizer.dispose();
+    }
+
+    @Benchmark
+    public int generateWarm() {
+        Pixmap p = iconizer.generate(size, size, seed++);
+        int c = p.getPixel(0, 0);
+        p.dispose();
+        return c;
+    }
+
+    @Benchmark
+    public Pixmap generateIntoWarm() {
+        return iconizer.generateInto(target, seed++);
+    }
+
+    @Benchmark
+    public int[] compositorWarm() {
+        return compositor.generateInto(pixels, size, size, seed++);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 20)
+    public int generateCold(Cold cold) {
+        Pixmap p = cold.iconizer.generate(size, size, seed++);
+        int c = p.getPixel(0, 0);
+        p.dispose();
+        return c;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures HSL-to-RGB conversion: for one color, for the four colors each seed needs (with the lookup tables in
+ * {@link HslTable} and with float math), and for tinting a whole Pixmap.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HslBenchmark {
+    @Param({"72", "1024"})
+    public int size;
+
+    private Pixmap pixmap;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Headless.start();
+        pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pixmap.dispose();
+    }
+
+    @Benchmark
+    public int hsl2rgbColor() {
+        int c = counter++;
+        return Iconizer.hsl2rgb((c & 63) / 64f, (c >>> 6 & 15) / 64f + 0.7f, (c >>> 10 & 63) / 250f + 0.2f, 1f);
+    }
+
+    @Benchmark
+    public int seedColorsTable() {
+        long seed = Iconizer.scramble(counter++);
+        return Iconizer.backgroundColor(seed) ^ Iconizer.circleColor(seed)
+                ^ Iconizer.leftTint(seed) ^ Iconizer.rightTint(seed);
+    }
+
+    @Benchmark
+    public int seedColorsFloat() {
+        long seed = Iconizer.scramble(counter++);
+        return Iconizer.backgroundColorFloat(seed) ^ Iconizer.circleColorFloat(seed)
+                ^ Iconizer.leftTintFloat(seed) ^ Iconizer.rightTintFloat(seed);
+    }
+
+    @Benchmark
+    public Pixmap hsl2rgbPixmap() {
+        int c = counter++;
+        Iconizer.hsl2rgb(pixmap, (c & 63) / 64f, (c >>> 6 & 15) / 64f + 0.7f, (c >>> 10 & 63) / 250f + 0.2f);
+        return pixmap;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways to draw large icons: {@code gdx2d} is {@link Iconizer#generateInto(Pixmap, long)}, which scales
+ * with libGDX's native Pixmap code; {@code scalar} is {@link IconCompositor} with {@link BlendKernel#SCALAR}; and
+ * {@code best} is IconCompositor with {@link BlendKernel#get()}, which is the vector kernel from the
+ * iconizer-gdx-vector module when the JVM supports it. The kernel in use is printed during setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelBenchmark {
+    @Param({"512", "1024"})
+    public int size;
+
+    @Param({"gdx2d", "scalar", "best"})
+    public String path;
+
+    private Iconizer iconizer;
+    private IconCompositor compositor;
+    private Pixmap target;
+    private int[] pixels;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("gdx2d".equals(path)) {
+            Headless.start();
+            iconizer = new Iconizer();
+            target = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        } else {
+            BlendKernel kernel = "scalar".equals(path) ? BlendKernel.SCALAR : BlendKernel.get();
+            System.out.println("Using the " + kernel.name() + " kernel.");
+            compositor = new IconCompositor(IconAtlas.get(), kernel);
+            pixels = new int[size * size];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (iconizer != null) {
+            target.dispose();
+            iconizer.dispose();
+        }
+    }
+
+    @Benchmark
+    public Object generate() {
+        if (iconizer != null)
+            return iconizer.generateInto(target, seed++);
+        return compositor.generateInto(pixels, size, size, seed++);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing icons as PNG with {@link PixmapIO.PNG} at compression level 9, as BasicOutputDemo used to, against
+ * {@link IconPng}. Each benchmark writes one of 16 pre-generated icons per call, to an in-memory stream. To see how it
+ * scales when writing from many threads, run with JMH's {@code -t} option; each thread gets its own encoders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PngBenchmark {
+    @Param({"32", "72", "512"})
+    public int size;
+
+    private Pixmap[] icons;
+    private PixmapIO.PNG pixmapIO;
+    private IconPng iconPng;
+    private ByteArrayOutputStream stream;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Headless.start();
+        Iconizer iconizer = new Iconizer();
+        icons = new Pixmap[16];
+        for (int i = 0; i < icons.length; i++) {
+            icons[i] = iconizer.generate(size, size, Iconizer.scramble(i));
+        }
+        iconizer.dispose();
+        pixmapIO = new PixmapIO.PNG();
+        pixmapIO.setCompression(9);
+        pixmapIO.setFlipY(false);
+        iconPng = new IconPng();
+        stream = new ByteArrayOutputStream(size * size * 4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Pixmap icon : icons) {
+            icon.dispose();
+        }
+        pixmapIO.dispose();
+        iconPng.dispose();
+    }
+
+    @Benchmark
+    public int pixmapIO9() throws IOException {
+        stream.reset();
+        pixmapIO.write(stream, icons[index++ & 15]);
+        return stream.size();
+    }
+
+    @Benchmark
+    public int iconPng() throws IOException {
+        stream.reset();
+        iconPng.write(stream, icons[index++ & 15]);
+        return stream.size();
+    }
+}
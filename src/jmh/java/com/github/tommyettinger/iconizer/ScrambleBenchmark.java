@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tommyettinger.iconizer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the seed hashing that every call to {@link Iconizer#generate(int, int, Object...)} starts with, and the
+ * bulk and primitive variants used when sweeping through many seeds. The bulk benchmarks report the time per seed;
+ * {@link #scrambleBulkNoSuperWord()} runs the same code with C2's auto-vectorization turned off, to show how much of
+ * the speedup comes from it. The hashAll and legacy benchmarks hash a new String each time, since a String caches its
+ * hashCode() after the first call; subtract {@link #newStringOnly(Names)} to get the time spent hashing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScrambleBenchmark {
+    private long counter;
+    private final Object[] objects = {"My Cool Game", "com.example.cool", 42};
+    private final Object[] objectLongs = {0L, 0x1234567890L, 42L};
+    private final long[] longs = {0L, 0x1234567890L, 42L};
+    private final StringBuilder name = new StringBuilder("My Cool Game ");
+    private final CharSequence[] names = {"com.example.cool", name};
+    private final long[] in = new long[BULK], out = new long[BULK];
+
+    private static final int BULK = 4096;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < BULK; i++) {
+            in[i] = 0x9E3779B97F4A7C15L * i;
+        }
+    }
+
+    /**
+     * Makes a new String with {@code length} chars for each call, as a sweep over many candidate names would.
+     */
+    @State(Scope.Thread)
+    public static class Names {
+        @Param({"12", "100", "1000"})
+        public int length;
+
+        private final Object[] holder = new Object[1];
+        private char[] chars;
+        private int counter;
+
+        @Setup
+        public void setup() {
+            chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) ('a' + i % 26);
+            }
+        }
+
+        Object[] next() {
+            chars[0] = (char) ('A' + (counter++ & 15));
+            holder[0] = new String(chars);
+            return holder;
+        }
+    }
+
+    @Benchmark
+    public Object newStringOnly(Names names) {
+        return names.next();
+    }
+
+    @Benchmark
+    public long hashAllString(Names names) {
+        return Iconizer.hashAll(names.next());
+    }
+
+    @Benchmark
+    public long legacyScrambleAllString(Names names) {
+        return Iconizer.scrambleAll(names.next());
+    }
+
+    @Benchmark
+    public long scramble() {
+        return Iconizer.scramble(counter++);
+    }
+
+    @Benchmark
+    public long scrambleAll() {
+        objects[2] = (int) counter++;
+        return Iconizer.scrambleAll(objects);
+    }
+
+    @Benchmark
+    public long scrambleAllBoxedLongs() {
+        objectLongs[2] = counter++;
+        return Iconizer.scrambleAll(objectLongs);
+    }
+
+    @Benchmark
+    public long scrambleLongs() {
+        longs[2] = counter++;
+        return Iconizer.scrambleLongs(longs);
+    }
+
+    @Benchmark
+    public long scrambleAllBuilder() {
+        name.setLength(13);
+        name.append(counter++ & 1023);
+        return Iconizer.scrambleAllChars(names);
+    }
+
+    @Benchmark
+    public long scrambleAllBuilderToString() {
+        name.setLength(13);
+        name.append(counter++ & 1023);
+        return Iconizer.scrambleAll(new Object[]{names[0], name.toString()});
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    public long[] scrambleEach() {
+        // Looping to in.length rather than the constant BULK, like real callers, so JMH can't fold the trip count.
+        final long[] in = this.in, out = this.out;
+        for (int i = 0; i < in.length; i++) {
+            out[i] = Iconizer.scramble(in[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    public long[] scrambleBulk() {
+        return Iconizer.scrambleBulk(in, out);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    @Fork(value = 1, jvmArgsAppend = "-XX:-UseSuperWord")
+    public long[] scrambleBulkNoSuperWord() {
+        return Iconizer.scrambleBulk(in, out);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures getting one source icon ready to draw, comparing the packed {@link IconAtlas} to decoding the original
+ * PNG from the classpath, plus how long loading the whole IconAtlas takes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceBenchmark {
+    private IconAtlas atlas;
+    private Pixmap pixmap;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Headless.start();
+        atlas = IconAtlas.get();
+        pixmap = new Pixmap(IconAtlas.ICON_SIZE, IconAtlas.ICON_SIZE, Pixmap.Format.RGBA8888);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pixmap.dispose();
+    }
+
+    @Benchmark
+    public Pixmap atlasTint() {
+        int c = counter++;
+        return atlas.tintInto((c & 0x7FFFFFFF) % atlas.count, c << 8, pixmap);
+    }
+
+    @Benchmark
+    public int pngDecode() {
+        Pixmap p = new Pixmap(Gdx.files.classpath("icons/" + IconNames.get((counter++ & 0x7FFFFFFF) % IconNames.COUNT)));
+        int w = p.getWidth();
+        p.dispose();
+        return w;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 10)
+    public IconAtlas atlasLoad() {
+        return IconAtlas.load();
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.tommyettinger.iconizer;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * The inner loop of {@link IconCompositor}: scales one row of a tinted icon half with bilinear filtering, and blends
+ * it over RGBA8888 pixels with SourceOver blending, the same way gdx2d does. This base class does that with plain
+ * scalar Java, and is always available. Faster versions can subclass this, override
+ * {@link #blendRow(int[], int, int, int, int[], int[], int[], int[], float[], float, int)}, and register
+ * themselves with {@link ServiceLoader} in {@code META-INF/services/com.github.tommyettinger.iconizer.BlendKernel};
+ * the optional {@code iconizer-gdx-vector} module does this using the JDK's Vector API. Any subclass must produce
+ * exactly the same pixels as this one.
+ * <br>
+ * {@link #get()} picks the kernel to use when this class is first used. Setting the system property
+ * {@code iconizer.kernel} to {@code scalar} always picks this scalar kernel.
+ */
+public class BlendKernel {
+    private static BlendKernel best;
+
+    /**
+     * The scalar kernel; this is always available.
+     */
+    public static final BlendKernel SCALAR = new BlendKernel();
+
+    /**
+     * Only subclasses and {@link #SCALAR} should need to create BlendKernels.
+     */
+    protected BlendKernel() {
+    }
+
+    /**
+     * Gets the fastest kernel that works in this JVM. This is the first kernel registered with {@link ServiceLoader}
+     * that can be loaded and reports itself as {@link #isSupported() supported}; if there are none, or the
+     * {@code iconizer.kernel} system property is {@code scalar}, this is {@link #SCALAR}. The choice is made once.
+     * @return the fastest usable kernel
+     */
+    public static synchronized BlendKernel get() {
+        if (best == null) {
+            best = SCALAR;
+            String forced = null;
+            try {
+                forced = System.getProperty("iconizer.kernel");
+            } catch (SecurityException ignored) {
+            }
+            if (!"scalar".equals(forced)) {
+                try {
+                    Iterator<BlendKernel> it = ServiceLoader.load(BlendKernel.class, BlendKernel.class.getClassLoader()).iterator();
+                    while (it.hasNext()) {
+                        BlendKernel k = it.next();
+                        if (k.isSupported()) {
+                            best = k;
+                            break;
+                        }
+                    }
+                } catch (ServiceConfigurationError | LinkageError ignored) {
+                    // A kernel that needs a JDK module that isn't present can't be loaded; the scalar kernel works.
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Checks whether this kernel can run in this JVM, and is worth using; the scalar kernel always can.
+     * @return true if this kernel can be used
+     */
+    public boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Gets a short name for this kernel, for logs and benchmarks.
+     * @return the name of this kernel
+     */
+    public String name() {
+        return "scalar";
+    }
+
+    /**
+     * Scales and blends one row of an icon half into {@code dst}. Each pixel in the row mixes four samples from the
+     * source alpha mask: the sample at its position, the ones right of it and below it, and the one diagonally below
+     * and right. Those four alphas, from 0 to 255, are given for each pixel in {@code a1}, {@code a2}, {@code a3}, and
+     * {@code a4}, in that order; pixel {@code i} (for {@code i} from 0 to {@code count - 1}) reads them, and its
+     * {@code xDiff}, at index {@code colStart + i}. Every pixel uses the tint's RGB and gets its alpha from the mixed
+     * samples, then is blended over the pixel already in dst.
+     * @param dst RGBA8888 pixels to blend onto
+     * @param dstIndex the index in dst of the first pixel to blend
+     * @param count how many pixels to blend
+     * @param tint the RGBA8888 tint; its alpha is ignored
+     * @param a1 the upper-left sample for each pixel
+     * @param a2 the upper-right sample for each pixel
+     * @param a3 the lower-left sample for each pixel
+     * @param a4 the lower-right sample for each pixel
+     * @param xDiff how far between the left and right samples each pixel falls, from 0 to 1
+     * @param yDiff how far between the upper and lower samples every pixel in this row falls, from 0 to 1
+     * @param colStart the index in each sample array for the first pixel
+     */
+    public void blendRow(int[] dst, int dstIndex, int count, int tint, int[] a1, int[] a2, int[] a3, int[] a4,
+                         float[] xDiff, float yDiff, int colStart) {
+        final int cr = tint >>> 24, cg = tint >>> 16 & 255, cb = tint >>> 8 & 255;
+        for (int i = 0; i < count; i++) {
+            final int c = colStart + i;
+            final float xd = xDiff[c];
+
+            final float ta = (1 - xd) * (1 - yDiff);
+            final float tb = (xd) * (1 - yDiff);
+            final float tc = (1 - xd) * (yDiff);
+            final float td = (xd) * (yDiff);
+
+            final int r = (int) (cr * ta + cr * tb + cr * tc + cr * td) & 0xff;
+            final int g = (int) (cg * ta + cg * tb + cg * tc + cg * td) & 0xff;
+            final int b = (int) (cb * ta + cb * tb + cb * tc + cb * td) & 0xff;
+            final int a = (int) (a1[c] * ta + a2[c] * tb + a3[c] * tc + a4[c] * td) & 0xff;
+            final int d = dstIndex + i;
+            dst[d] = IconCompositor.blend(r << 24 | g << 16 | b << 8 | a, dst[d]);
+        }
+    }
+}
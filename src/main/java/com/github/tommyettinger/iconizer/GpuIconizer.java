@@ -0,0 +1,290 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Renders whole sheets of icons on the GPU, drawing every icon in a grid with one SpriteBatch into a FrameBuffer.
+ * This is meant for interactive previews, where many icons change at once and uploading each one separately would
+ * cost more than drawing them; for exact output, or for anything without an OpenGL context, use {@link Iconizer} or
+ * {@link IconCompositor} instead.
+ * <br>
+ * When created, this uploads every alpha mask in the {@link IconAtlas} to one {@link Pixmap.Format#Alpha} texture,
+ * along with a solid square and a filled circle. Each icon is then four quads from that texture: the background, the
+ * circle, and the two halves, colored with the same colors {@link Iconizer#describe(long)} gives. The shader takes RGB
+ * from the vertex color and alpha from the texture, like {@link IconAtlas#tintInto(int, int, Pixmap)} does on the CPU.
+ * Results look the same as Iconizer's, but aren't bit-identical, because GPU bilinear filtering and blending round
+ * differently than gdx2d does.
+ * <br>
+ * This needs an OpenGL context, so it must be created and used on the render thread, during or after
+ * {@code ApplicationListener.create()}. It works with software OpenGL, such as Mesa's llvmpipe, so it can be used on
+ * a machine without a GPU if a virtual display is available. Call {@link #dispose()} when done with it.
+ */
+public final class GpuIconizer implements Disposable {
+    /**
+     * How many texels each icon takes up in the uploaded texture, including a 1-texel transparent border on each
+     * side so bilinear filtering can't bleed between neighboring icons.
+     */
+    public static final int SLOT_SIZE = IconAtlas.ICON_SIZE + 2;
+    /**
+     * The most quads drawn per flush of the SpriteBatch; each icon takes 4, so up to 2047 icons are drawn per flush.
+     */
+    public static final int MAX_QUADS = 8191;
+
+    private static final String VERTEX_SHADER =
+            "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+            "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+            "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+            "uniform mat4 u_projTrans;\n" +
+            "varying vec4 v_color;\n" +
+            "varying vec2 v_texCoords;\n" +
+            "\n" +
+            "void main()\n" +
+            "{\n" +
+            "   v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+            "   v_color.a = v_color.a * (255.0/254.0);\n" +
+            "   v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+            "   gl_Position =  u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+            "}\n";
+    private static final String FRAGMENT_SHADER =
+            "#ifdef GL_ES\n" +
+            "#define LOWP lowp\n" +
+            "precision mediump float;\n" +
+            "#else\n" +
+            "#define LOWP \n" +
+            "#endif\n" +
+            "varying vec2 v_texCoords;\n" +
+            "varying LOWP vec4 v_color;\n" +
+            "uniform sampler2D u_texture;\n" +
+            "void main()\n" +
+            "{\n" +
+            "   gl_FragColor = vec4(v_color.rgb, v_color.a * texture2D(u_texture, v_texCoords).a);\n" +
+            "}";
+
+    /**
+     * How many floats {@link #quads(IconSpec, int, int, int, int, int, int, float[])} writes per quad: x, y, width,
+     * height, u, v, u2, v2, and the packed color.
+     */
+    static final int QUAD_FLOATS = 9;
+
+    private final Texture texture;
+    private final ShaderProgram shader;
+    private final SpriteBatch batch;
+    private final int columns;
+    private final int count;
+    private final float[] quads = new float[QUAD_FLOATS * 4];
+    private FrameBuffer buffer;
+
+    /**
+     * Creates a GpuIconizer, uploading the shared {@link IconAtlas} to the GPU. This must be called on the render
+     * thread, with an OpenGL context current.
+     */
+    public GpuIconizer() {
+        this(IconAtlas.get());
+    }
+
+    /**
+     * Creates a GpuIconizer that draws icons from the given IconAtlas, uploading it to the GPU. This must be called on
+     * the render thread, with an OpenGL context current.
+     * @param atlas the IconAtlas to draw icons from; typically {@link IconAtlas#get()}
+     */
+    public GpuIconizer(IconAtlas atlas) {
+        count = atlas.count;
+        columns = columns(atlas);
+        Pixmap p = pack(atlas);
+        texture = new Texture(p);
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        p.dispose();
+
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            texture.dispose();
+            throw new GdxRuntimeException("Could not compile GpuIconizer shader: " + shader.getLog());
+        }
+        batch = new SpriteBatch(MAX_QUADS, shader);
+        batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    /**
+     * Gets how many slots go across the texture that {@link #pack(IconAtlas)} makes for the given atlas.
+     */
+    static int columns(IconAtlas atlas) {
+        return (int) Math.ceil(Math.sqrt(atlas.count + 2));
+    }
+
+    /**
+     * Makes the {@link Pixmap.Format#Alpha} Pixmap that gets uploaded as this class' texture: every mask in the atlas,
+     * then a solid square, then a filled circle, each in its own slot. This doesn't need an OpenGL context.
+     */
+    static Pixmap pack(IconAtlas atlas) {
+        final int size = IconAtlas.ICON_SIZE, columns = columns(atlas), side = columns * SLOT_SIZE;
+        Pixmap p = new Pixmap(side, side, Pixmap.Format.Alpha);
+        p.setBlending(Pixmap.Blending.None);
+        final ByteBuffer px = p.getPixels();
+        final byte[] masks = atlas.masks();
+        for (int i = 0; i < atlas.count; i++) {
+            final int x = slotX(i, columns), y = slotY(i, columns);
+            for (int r = 0; r < size; r++) {
+                px.position((y + r) * side + x);
+                px.put(masks, atlas.offset(i) + r * size, size);
+            }
+        }
+        px.position(0);
+        p.setColor(Color.WHITE);
+        p.fillRectangle(slotX(atlas.count, columns), slotY(atlas.count, columns), size, size);
+        final int circleSlot = atlas.count + 1;
+        p.fillCircle(slotX(circleSlot, columns) + size / 2, slotY(circleSlot, columns) + size / 2, size / 2 - 1);
+        return p;
+    }
+
+    private static int slotX(int slot, int columns) {
+        return slot % columns * SLOT_SIZE + 1;
+    }
+
+    private static int slotY(int slot, int columns) {
+        return slot / columns * SLOT_SIZE + 1;
+    }
+
+    /**
+     * Renders one icon per seed into a sheet, {@code columns} icons across, left to right and then top to bottom, and
+     * returns the texture holding it. The sheet is {@code columns * width} pixels wide and just tall enough for every
+     * seed; cells past the last seed are transparent. Row 0 of the texture is the top of the sheet, so drawing it with
+     * {@code SpriteBatch.draw(texture, x, y)} shows it right side up.
+     * <br>
+     * The returned texture belongs to this GpuIconizer, and is reused by the next call to this or
+     * {@link #generateSheet(long[], int, int, int)}; don't dispose it, and draw or copy it before rendering again.
+     * @param seeds the typically-unique long seeds to render, one icon each
+     * @param width the width in pixels of each icon
+     * @param height the height in pixels of each icon
+     * @param columns how many icons go across the sheet
+     * @return the texture holding the sheet, owned by this GpuIconizer
+     */
+    public Texture render(long[] seeds, int width, int height, int columns) {
+        final int rows = (seeds.length + columns - 1) / columns;
+        final int sheetWidth = columns * width, sheetHeight = Math.max(rows, 1) * height;
+        if (buffer == null || buffer.getWidth() != sheetWidth || buffer.getHeight() != sheetHeight) {
+            if (buffer != null) buffer.dispose();
+            buffer = new FrameBuffer(Pixmap.Format.RGBA8888, sheetWidth, sheetHeight, false);
+            buffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        }
+        buffer.begin();
+        Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        // World y is the row in the framebuffer, which is also the row in a Pixmap read back from it.
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, sheetWidth, sheetHeight);
+        batch.begin();
+        for (int i = 0; i < seeds.length; i++) {
+            drawIcon(seeds[i], i % columns * width, i / columns * height, width, height);
+        }
+        batch.end();
+        buffer.end();
+        return buffer.getColorBufferTexture();
+    }
+
+    /**
+     * Renders one icon per seed into a sheet, the same as {@link #render(long[], int, int, int)}, then reads the sheet
+     * back into a new RGBA8888 Pixmap. Only this one read happens, no matter how many icons are in the sheet. The
+     * caller owns the returned Pixmap, and must dispose it.
+     * @param seeds the typically-unique long seeds to render, one icon each
+     * @param width the width in pixels of each icon
+     * @param height the height in pixels of each icon
+     * @param columns how many icons go across the sheet
+     * @return a new Pixmap holding the sheet, with the first icon in its upper-left corner
+     */
+    public Pixmap generateSheet(long[] seeds, int width, int height, int columns) {
+        render(seeds, width, height, columns);
+        buffer.begin();
+        Pixmap sheet = Pixmap.createFromFrameBuffer(0, 0, buffer.getWidth(), buffer.getHeight());
+        buffer.end();
+        return sheet;
+    }
+
+    private void drawIcon(long seed, int x, int y, int width, int height) {
+        quads(Iconizer.describe(seed), columns, count, x, y, width, height, quads);
+        for (int q = 0; q < quads.length; q += QUAD_FLOATS) {
+            batch.setPackedColor(quads[q + 8]);
+            batch.draw(texture, quads[q], quads[q + 1], quads[q + 2], quads[q + 3],
+                    quads[q + 4], quads[q + 5], quads[q + 6], quads[q + 7]);
+        }
+    }
+
+    /**
+     * Lays out the four quads that draw one icon, in drawing order: the background, the circle, and the two halves.
+     * Each takes {@link #QUAD_FLOATS} floats in {@code out}, which are the arguments to
+     * {@code SpriteBatch.draw(texture, x, y, width, height, u, v, u2, v2)} followed by the color to set before it, as
+     * packed by {@link Color#toFloatBits(int, int, int, int)}. This doesn't need an OpenGL context.
+     * @param spec what to draw
+     * @param columns how many slots go across the texture, from {@link #columns(IconAtlas)}
+     * @param count how many icons are in the atlas the texture was packed from
+     * @param x the left edge of the icon in the sheet
+     * @param y the top edge of the icon in the sheet
+     * @param width the width of the icon in pixels
+     * @param height the height of the icon in pixels
+     * @param out a float array with length at least {@code 4 * QUAD_FLOATS}; will be overwritten
+     */
+    static void quads(IconSpec spec, int columns, int count, int x, int y, int width, int height, float[] out) {
+        final int size = IconAtlas.ICON_SIZE, half = size / 2;
+        final float side = columns * SLOT_SIZE;
+        // The background samples only the middle of the solid slot, so its edges are never filtered.
+        int sx = slotX(count, columns) + half, sy = slotY(count, columns) + half;
+        quad(out, 0, x, y, width, height, sx / side, sy / side, sx / side, sy / side, spec.background);
+
+        sx = slotX(count + 1, columns);
+        sy = slotY(count + 1, columns);
+        final float r = width / 4;
+        quad(out, 1, x + width / 2 - r - 1, y + height / 2 - r - 1, r * 2 + 2, r * 2 + 2,
+                sx / side, sy / side, (sx + size) / side, (sy + size) / side, spec.circle);
+
+        sx = slotX(spec.leftIcon, columns);
+        sy = slotY(spec.leftIcon, columns);
+        quad(out, 2, x, y, width / 2, height,
+                sx / side, sy / side, (sx + half) / side, (sy + size) / side, spec.leftTint | 0xFF);
+
+        sx = slotX(spec.rightIcon, columns);
+        sy = slotY(spec.rightIcon, columns);
+        quad(out, 3, x + width / 2, y, width - width / 2, height,
+                (sx + half) / side, sy / side, (sx + size) / side, (sy + size) / side, spec.rightTint | 0xFF);
+    }
+
+    private static void quad(float[] out, int quad, float x, float y, float width, float height,
+                             float u, float v, float u2, float v2, int rgba) {
+        final int i = quad * QUAD_FLOATS;
+        out[i] = x;
+        out[i + 1] = y;
+        out[i + 2] = width;
+        out[i + 3] = height;
+        out[i + 4] = u;
+        out[i + 5] = v;
+        out[i + 6] = u2;
+        out[i + 7] = v2;
+        out[i + 8] = packed(rgba);
+    }
+
+    private static float packed(int rgba) {
+        return Color.toFloatBits(rgba >>> 24, rgba >>> 16 & 255, rgba >>> 8 & 255, rgba & 255);
+    }
+
+    /**
+     * Disposes the uploaded texture, the shader, the SpriteBatch, and the FrameBuffer, if one was made.
+     */
+    @Override
+    public void dispose() {
+        if (buffer != null) {
+            buffer.dispose();
+            buffer = null;
+        }
+        batch.dispose();
+        shader.dispose();
+        texture.dispose();
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.tommyettinger.iconizer;
+
+/**
+ * Lookup tables that turn the bit fields {@link Iconizer} takes from a seed straight into the colors
+ * {@link Iconizer#hsl2rgb(float, float, float, float)} and {@link Iconizer#tint(float, float, float)} would compute
+ * for them. Each hue, saturation, and lightness comes from at most a few bits of the seed, so every value those
+ * methods can be given here is known ahead of time.
+ * <br>
+ * Hue only affects three per-channel factors, so those are stored for all 64 hues. Saturation and lightness decide a
+ * brightness and a blend amount; for the background, circle, and left tint, there are only 1024 combinations of
+ * those, so both are stored for each. The right tint has far more combinations, so only its saturation and lightness
+ * values are stored, and the rest is computed. Every stored float is computed with exactly the same float operations,
+ * in the same order, as the methods above, and is combined the same way, so the results are bit-for-bit identical;
+ * {@code HslTableTest} checks every reachable input.
+ */
+final class HslTable {
+    private HslTable() {
+    }
+
+    private static final float[] HUE_R = new float[64], HUE_G = new float[64], HUE_B = new float[64];
+    private static final float[] BACKGROUND_V = new float[1024], BACKGROUND_D = new float[1024];
+    private static final float[] CIRCLE_V = new float[1024], CIRCLE_D = new float[1024];
+    private static final float[] LEFT_V = new float[1024], LEFT_D = new float[1024];
+    private static final float[] RIGHT_S = new float[128], RIGHT_L = new float[1024];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            final float h = i / 64f;
+            float y = h + (2f / 3f);
+            float z = h + (1f / 3f);
+            y -= (int) y;
+            z -= (int) z;
+            HUE_R[i] = Math.min(Math.max(Math.abs(h * 6f - 3f) - 1f, 0f), 1f);
+            HUE_G[i] = Math.min(Math.max(Math.abs(y * 6f - 3f) - 1f, 0f), 1f);
+            HUE_B[i] = Math.min(Math.max(Math.abs(z * 6f - 3f) - 1f, 0f), 1f);
+        }
+        // Indices are the seed bits exactly as they sit in the seed: lightness above saturation.
+        for (int s = 0; s < 16; s++) {
+            for (int l = 0; l < 64; l++) {
+                final int i = l << 4 | s;
+                store(i, s / 64f + 0.7f, l / 250f + 0.2f, BACKGROUND_V, BACKGROUND_D);
+                store(i, s / 64f + 0.7f, l / 250f, CIRCLE_V, CIRCLE_D);
+                store(i, s / 100f + 0.85f, l / 256f + 0.55f, LEFT_V, LEFT_D);
+            }
+        }
+        for (int a = 0; a < 16; a++) {
+            for (int b = 0; b < 8; b++) {
+                RIGHT_S[b << 4 | a] = a / 150f + 0.85f - 0.035f + b / 100f;
+            }
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 16; b++) {
+                RIGHT_L[b << 6 | a] = a / 256f + 0.6f - 0.05f + b / 150f;
+            }
+        }
+    }
+
+    private static void store(int i, float s, float l, float[] vs, float[] ds) {
+        final float v = (l + s * Math.min(l, 1f - l));
+        ds[i] = 2f * (1f - l / (v + 1e-10f));
+        vs[i] = v * 255f;
+    }
+
+    /**
+     * Same as {@code lerp(1f, t, d)} in MathUtils, which is what the float path uses.
+     */
+    private static float lerp(float t, float d) {
+        return 1f + (t - 1f) * d;
+    }
+
+    /**
+     * Matches {@link Iconizer#hsl2rgb(float, float, float, float)} with an alpha of 1, including not masking channels.
+     */
+    private static int opaque(int h, float v, float d) {
+        return 254
+                | (int) (v * lerp(HUE_B[h], d)) << 8
+                | (int) (v * lerp(HUE_G[h], d)) << 16
+                | (int) (v * lerp(HUE_R[h], d)) << 24;
+    }
+
+    /**
+     * Matches {@link Iconizer#tint(float, float, float)}.
+     */
+    private static int tint(int h, float v, float d) {
+        return ((int) (v * lerp(HUE_R[h], d)) & 255) << 24
+                | ((int) (v * lerp(HUE_G[h], d)) & 255) << 16
+                | ((int) (v * lerp(HUE_B[h], d)) & 255) << 8;
+    }
+
+    static int background(long seed) {
+        final int h = (int) (seed & 62), i = (int) (seed >>> 6 & 1023);
+        return opaque(h, BACKGROUND_V[i], BACKGROUND_D[i]);
+    }
+
+    static int circle(long seed) {
+        final int h = (int) (seed & 62), i = (int) (seed >>> 6 & 1023);
+        return opaque(h, CIRCLE_V[i], CIRCLE_D[i]);
+    }
+
+    static int leftTint(long seed) {
+        final int h = (int) (seed >>> 47 & 62) + 1, i = (int) (seed >>> 17 & 1023);
+        return tint(h, LEFT_V[i], LEFT_D[i]);
+    }
+
+    static int rightTint(long seed) {
+        final int h = (int) (((seed >>> 47 & 62) + 1) + (seed >>> 26 & 6) - 3 & 63);
+        final float s = RIGHT_S[(int) (seed >>> 29 & 127)];
+        final float l = RIGHT_L[(int) (seed >>> 36 & 1023)];
+        final float v = (l + s * Math.min(l, 1f - l));
+        final float d = 2f * (1f - l / (v + 1e-10f));
+        return tint(h, v * 255f, d);
+    }
+}
@@ -0,0 +1,263 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Holds the alpha mask for every OpenMoji icon listed in {@link IconNames}, loaded once from a pre-packed binary blob
+ * on the classpath instead of from 1991 separate PNG files. The blob is produced at build time by the
+ * {@code packIcons} Gradle task, and is read here into one byte array; icons are then served by offset, with no
+ * per-icon decoding. There is only ever one IconAtlas, shared by every {@link Iconizer}; get it with {@link #get()}.
+ * <br>
+ * Only alpha is stored, because every icon gets its RGB channels replaced by one tint color when it is used. That
+ * makes the whole atlas about 10 MB, a quarter of what it would be as RGBA. The tint is applied when an icon is copied
+ * out with {@link #tintInto(int, int, Pixmap)}.
+ * <br>
+ * Because many icons have wide transparent margins, the blob also stores the bounding box of non-transparent pixels in
+ * each icon's {@link #LEFT} and {@link #RIGHT} half, and how much of each half is covered. {@link IconCompositor} uses
+ * the bounds to skip pixels that can't change anything, and callers can query them with methods like
+ * {@link #coverage(int, int)}, to reject icons with a nearly-empty half without rendering them.
+ * <br>
+ * The blob starts with six big-endian ints: {@link #MAGIC}, {@link #VERSION}, the icon count, the icon width, the icon
+ * height, and the bytes per pixel. Then there is one int offset per icon, relative to the start of the pixel data.
+ * Then, for each icon, its left half and then its right half each get four bytes for the bounds (min x, min y, max x,
+ * max y, inclusive) and one int for the sum of alpha in that half. Last is the pixel data itself, one alpha byte per
+ * pixel.
+ */
+public final class IconAtlas {
+    /**
+     * The classpath location of the packed icon blob.
+     */
+    public static final String PATH = "icons/icons.bin";
+    /**
+     * The first int in the blob; spells "ICON" in ASCII.
+     */
+    public static final int MAGIC = 0x49434F4E;
+    /**
+     * The version of the blob format this can read.
+     */
+    public static final int VERSION = 3;
+    /**
+     * The width and height of every OpenMoji icon, in pixels.
+     */
+    public static final int ICON_SIZE = 72;
+    /**
+     * How many bytes each pixel uses in the blob.
+     */
+    public static final int BYTES_PER_PIXEL = 1;
+    /**
+     * Identifies the left half of an icon, columns 0 to 35 inclusive; this is the half {@link Iconizer} draws on the
+     * left of each generated icon.
+     */
+    public static final int LEFT = 0;
+    /**
+     * Identifies the right half of an icon, columns 36 to 71 inclusive; this is the half {@link Iconizer} draws on the
+     * right of each generated icon.
+     */
+    public static final int RIGHT = 1;
+
+    private static IconAtlas instance;
+
+    /**
+     * How many icons this holds; the same as {@link IconNames#COUNT}.
+     */
+    public final int count;
+    private final int[] offsets;
+    private final byte[] bounds;
+    private final int[] sums;
+    private final byte[] alpha;
+
+    private IconAtlas(InputStream stream, String file) {
+        if (stream == null)
+            throw new GdxRuntimeException("Could not find packed icons at " + file);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        try {
+            if (in.readInt() != MAGIC)
+                throw new GdxRuntimeException("Not a packed icon file: " + file);
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new GdxRuntimeException("Unsupported packed icon version " + version + " in " + file);
+            count = in.readInt();
+            if (count != IconNames.COUNT)
+                throw new GdxRuntimeException("Expected " + IconNames.COUNT + " icons, but " + file + " has " + count);
+            int width = in.readInt(), height = in.readInt(), bpp = in.readInt();
+            if (width != ICON_SIZE || height != ICON_SIZE || bpp != BYTES_PER_PIXEL)
+                throw new GdxRuntimeException("Unexpected icon layout " + width + "x" + height + "x" + bpp + " in " + file);
+            offsets = new int[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = in.readInt();
+            }
+            bounds = new byte[count * 8];
+            sums = new int[count * 2];
+            for (int i = 0; i < count * 2; i++) {
+                in.readFully(bounds, i * 4, 4);
+                sums[i] = in.readInt();
+            }
+            alpha = new byte[count * ICON_SIZE * ICON_SIZE * BYTES_PER_PIXEL];
+            in.readFully(alpha);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not read packed icons from " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Gets the shared IconAtlas, loading it from {@link #PATH} on the classpath the first time this is called.
+     * If {@link Gdx#files} is available, this loads using it; otherwise, this loads using the class loader, so it can
+     * be used without any libGDX backend running or any native libraries loaded.
+     * @return the shared IconAtlas
+     */
+    public static synchronized IconAtlas get() {
+        if (instance == null) {
+            final long start = IconMetrics.start();
+            instance = load();
+            IconMetrics.stop(IconMetrics.Stage.LOAD, start);
+        }
+        return instance;
+    }
+
+    /**
+     * Loads a new IconAtlas from {@link #PATH}, without touching the shared instance. This is only meant for
+     * measuring how long loading takes; use {@link #get()} otherwise.
+     * @return a newly-loaded IconAtlas
+     */
+    static IconAtlas load() {
+        if (Gdx.files != null)
+            return new IconAtlas(Gdx.files.classpath(PATH).read(), PATH);
+        return new IconAtlas(IconAtlas.class.getClassLoader().getResourceAsStream(PATH), PATH);
+    }
+
+    /**
+     * Copies the icon at {@code index} into {@code p}, which must be an RGBA8888 Pixmap that is exactly
+     * {@link #ICON_SIZE} by {@link #ICON_SIZE}. Every pixel gets the RGB channels of {@code rgba} and the alpha from
+     * the icon's mask; the alpha channel of {@code rgba} is ignored.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @param rgba an RGBA8888 color to use for the RGB channels of every pixel
+     * @param p a 72x72 RGBA8888 Pixmap that will be overwritten
+     * @return {@code p}, after editing it
+     */
+    public Pixmap tintInto(int index, int rgba, Pixmap p) {
+        if (p.getWidth() != ICON_SIZE || p.getHeight() != ICON_SIZE || p.getFormat() != Pixmap.Format.RGBA8888)
+            throw new IllegalArgumentException("The Pixmap must be " + ICON_SIZE + "x" + ICON_SIZE + " RGBA8888.");
+        final ByteBuffer dst = p.getPixels();
+        final int shift, color;
+        if (dst.order() == ByteOrder.BIG_ENDIAN) {
+            shift = 0;
+            color = rgba & 0xFFFFFF00;
+        } else {
+            shift = 24;
+            color = Integer.reverseBytes(rgba) & 0x00FFFFFF;
+        }
+        final byte[] alpha = this.alpha;
+        for (int i = offsets[index], n = i + ICON_SIZE * ICON_SIZE, b = 0; i < n; i++, b += 4) {
+            dst.putInt(b, color | (alpha[i] & 255) << shift);
+        }
+        return p;
+    }
+
+    /**
+     * Gets the alpha mask of the icon at {@code index}, as the offset of its first pixel in {@link #masks()}. Each icon
+     * is {@link #ICON_SIZE} by {@link #ICON_SIZE} pixels, one byte per pixel, in row-major order.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @return the offset in {@link #masks()} where that icon's alpha mask starts
+     */
+    public int offset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Gets the array holding every icon's alpha mask, directly; this is not a copy, so it should not be modified.
+     * Use {@link #offset(int)} to find where a particular icon starts.
+     * @return the array holding all alpha masks, which must not be modified
+     */
+    public byte[] masks() {
+        return alpha;
+    }
+
+    /**
+     * Gets the alpha of one pixel in the icon at {@code index}.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @param x the x-coordinate of the pixel, from 0 to 71 inclusive
+     * @param y the y-coordinate of the pixel, from 0 to 71 inclusive
+     * @return the alpha of that pixel, from 0 to 255 inclusive
+     */
+    public int alpha(int index, int x, int y) {
+        return alpha[offsets[index] + y * ICON_SIZE + x] & 255;
+    }
+
+    /**
+     * Gets the smallest x-coordinate of any non-transparent pixel in one half of the icon at {@code index}. If that
+     * half is completely transparent, this is the first column of the half, and is greater than
+     * {@link #maxX(int, int)}.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @param half {@link #LEFT} or {@link #RIGHT}
+     * @return the smallest x of any visible pixel in that half, from 0 to 71 inclusive
+     */
+    public int minX(int index, int half) {
+        return bounds[(index << 1 | half) << 2];
+    }
+
+    /**
+     * Gets the smallest y-coordinate of any non-transparent pixel in one half of the icon at {@code index}. If that
+     * half is completely transparent, this is 0, and is greater than {@link #maxY(int, int)}.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @param half {@link #LEFT} or {@link #RIGHT}
+     * @return the smallest y of any visible pixel in that half, from 0 to 71 inclusive
+     */
+    public int minY(int index, int half) {
+        return bounds[(index << 1 | half) << 2 | 1];
+    }
+
+    /**
+     * Gets the largest x-coordinate of any non-transparent pixel in one half of the icon at {@code index}. If that
+     * half is completely transparent, this is one less than the first column of the half.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @param half {@link #LEFT} or {@link #RIGHT}
+     * @return the largest x of any visible pixel in that half, from -1 to 71 inclusive
+     */
+    public int maxX(int index, int half) {
+        return bounds[(index << 1 | half) << 2 | 2];
+    }
+
+    /**
+     * Gets the largest y-coordinate of any non-transparent pixel in one half of the icon at {@code index}. If that
+     * half is completely transparent, this is -1.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @param half {@link #LEFT} or {@link #RIGHT}
+     * @return the largest y of any visible pixel in that half, from -1 to 71 inclusive
+     */
+    public int maxY(int index, int half) {
+        return bounds[(index << 1 | half) << 2 | 3];
+    }
+
+    /**
+     * Gets how much of one half of the icon at {@code index} is covered, as the average alpha of every pixel in that
+     * half. A half that is completely transparent has coverage 0, and one that is completely opaque has coverage 1.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @param half {@link #LEFT} or {@link #RIGHT}
+     * @return the coverage of that half, from 0 to 1 inclusive
+     */
+    public float coverage(int index, int half) {
+        return sums[index << 1 | half] / (255f * ICON_SIZE * (ICON_SIZE / 2));
+    }
+
+    /**
+     * Checks whether one half of the icon at {@code index} is completely transparent.
+     * @param index the id of the icon, as used by {@link IconNames}
+     * @param half {@link #LEFT} or {@link #RIGHT}
+     * @return true if every pixel in that half has alpha 0
+     */
+    public boolean isEmpty(int index, int half) {
+        return sums[index << 1 | half] == 0;
+    }
+}
@@ -0,0 +1,230 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers icons made by an {@link Iconizer}, so asking for the same seed at the same size again only costs a copy
+ * of the already-generated pixels. Icons are keyed by (seed, width, height), and the cache holds at most a fixed
+ * number of bytes of pixel data; when adding an icon would go over that budget, the least-recently-used icons are
+ * disposed until it fits. An icon too large to ever fit in the budget is generated every time and never cached.
+ * <br>
+ * The cache owns every Pixmap it holds. {@link #generate(int, int, long)} always returns a new copy that the caller
+ * owns, and {@link #generateInto(Pixmap, long)} copies into a Pixmap the caller already has, so cached Pixmaps are
+ * never handed out and can be disposed on eviction without affecting the caller. Call {@link #dispose()} when done;
+ * this does not dispose the Iconizer.
+ * <br>
+ * Like Iconizer, an IconCache is not thread-safe; use one per thread, or synchronize on it.
+ */
+public final class IconCache implements Disposable {
+    private final Iconizer iconizer;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Pixmap> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Key probe = new Key();
+    private long bytes = 0L;
+    private long hits = 0L;
+    private long misses = 0L;
+    private long evictions = 0L;
+
+    /**
+     * Creates an IconCache in front of the given Iconizer, holding at most {@code maxBytes} bytes of pixel data.
+     * Each icon uses {@code width * height * 4} bytes.
+     * @param iconizer the Iconizer used to generate icons that aren't cached yet; not disposed by this
+     * @param maxBytes the most bytes of pixel data this can hold at once; must not be negative
+     */
+    public IconCache(Iconizer iconizer, long maxBytes) {
+        if (maxBytes < 0L)
+            throw new IllegalArgumentException("maxBytes must not be negative.");
+        this.iconizer = iconizer;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates a new Pixmap with the given width and height, holding the same icon
+     * {@link Iconizer#generate(int, int, long)} would produce for the same seed. If that icon is cached, this only
+     * copies its pixels; otherwise, it is generated, cached, and then copied. The caller owns the returned Pixmap, and
+     * must dispose it.
+     * @param width the width in pixels of the Pixmap to produce
+     * @param height the height in pixels of the Pixmap to produce
+     * @param seed a typically-unique long seed for random generation
+     * @return a new Pixmap generated using the given size and seed
+     */
+    public Pixmap generate(int width, int height, long seed) {
+        return generateInto(Iconizer.newPixmap(width, height), seed);
+    }
+
+    /**
+     * Overwrites the existing Pixmap {@code o} with the icon {@link Iconizer#generateInto(Pixmap, long)} would produce
+     * for the same seed, using o's width and height. If that icon is cached, this only copies its pixels; otherwise,
+     * it is generated, cached, and then copied. The Pixmap must use {@link Pixmap.Format#RGBA8888}.
+     * @param o an RGBA8888 Pixmap that will be overwritten; the caller still owns it
+     * @param seed a typically-unique long seed for random generation
+     * @return o, after editing it
+     */
+    public Pixmap generateInto(Pixmap o, long seed) {
+        if (o.getFormat() != Pixmap.Format.RGBA8888)
+            throw new IllegalArgumentException("The Pixmap must be RGBA8888.");
+        final int width = o.getWidth(), height = o.getHeight();
+        final long size = (long) width * height * 4L;
+        Pixmap cached = entries.get(probe.set(seed, width, height));
+        if (cached != null) {
+            hits++;
+            IconMetrics.cacheLookup(true);
+            copy(cached, o);
+            return o;
+        }
+        misses++;
+        IconMetrics.cacheLookup(false);
+        if (size > maxBytes)
+            return iconizer.generateInto(o, seed);
+        while (bytes + size > maxBytes) {
+            evictEldest();
+        }
+        cached = iconizer.generate(width, height, seed);
+        entries.put(new Key().set(seed, width, height), cached);
+        bytes += size;
+        copy(cached, o);
+        return o;
+    }
+
+    private static void copy(Pixmap from, Pixmap to) {
+        final ByteBuffer src = from.getPixels(), dst = to.getPixels();
+        src.position(0);
+        dst.position(0);
+        dst.put(src);
+        src.position(0);
+        dst.position(0);
+    }
+
+    private void evictEldest() {
+        Iterator<Map.Entry<Key, Pixmap>> it = entries.entrySet().iterator();
+        Map.Entry<Key, Pixmap> eldest = it.next();
+        it.remove();
+        bytes -= (long) eldest.getKey().width * eldest.getKey().height * 4L;
+        eldest.getValue().dispose();
+        evictions++;
+    }
+
+    /**
+     * Checks whether the icon for the given seed and size is cached right now, without counting as a hit or miss
+     * and without changing which icons are least-recently-used.
+     * @param width the width in pixels of the icon
+     * @param height the height in pixels of the icon
+     * @param seed the seed of the icon
+     * @return true if that icon is cached
+     */
+    public boolean contains(int width, int height, long seed) {
+        return entries.containsKey(probe.set(seed, width, height));
+    }
+
+    /**
+     * Gets how many times an icon was found in the cache.
+     * @return the number of cache hits since this was created or {@link #resetStats()} was called
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets how many times an icon wasn't in the cache and had to be generated.
+     * @return the number of cache misses since this was created or {@link #resetStats()} was called
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets how many icons were disposed to make room for others. This doesn't count icons removed by {@link #clear()}.
+     * @return the number of evictions since this was created or {@link #resetStats()} was called
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Sets the hit, miss, and eviction counts back to 0, without changing what is cached.
+     */
+    public void resetStats() {
+        hits = 0L;
+        misses = 0L;
+        evictions = 0L;
+    }
+
+    /**
+     * Gets how many icons are cached right now.
+     * @return the number of cached icons
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets how many bytes of pixel data are cached right now; this is never more than {@link #getMaxBytes()}.
+     * @return the number of bytes used by cached icons
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the most bytes of pixel data this can hold at once, as given to the constructor.
+     * @return the byte budget of this cache
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Disposes and removes every cached icon. The cache can still be used after this.
+     */
+    public void clear() {
+        for (Pixmap p : entries.values()) {
+            p.dispose();
+        }
+        entries.clear();
+        bytes = 0L;
+    }
+
+    /**
+     * Disposes every cached icon, the same as {@link #clear()}. The Iconizer given to the constructor is not disposed.
+     */
+    @Override
+    public void dispose() {
+        clear();
+    }
+
+    /**
+     * Identifies one icon by its seed and size. Lookups reuse one mutable Key, so cache hits don't allocate.
+     */
+    private static final class Key {
+        long seed;
+        int width;
+        int height;
+
+        Key set(long seed, int width, int height) {
+            this.seed = seed;
+            this.width = width;
+            this.height = height;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return seed == k.seed && width == k.width && height == k.height;
+        }
+
+        @Override
+        public int hashCode() {
+            final long h = Iconizer.scramble(seed ^ ((long) width << 32 | height & 0xFFFFFFFFL));
+            return (int) (h ^ h >>> 32);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.github.tommyettinger.iconizer;
+
+import java.util.Arrays;
+
+/**
+ * Generates the same icons as {@link Iconizer#generate(int, int, long)}, but using only Java code, writing RGBA8888
+ * pixels into an int array instead of a Pixmap. This doesn't need any libGDX backend to be running, and doesn't need
+ * native libraries to be loaded, so it can be used from a command-line tool or a server with nothing but the jar.
+ * If {@link com.badlogic.gdx.Gdx#files} isn't available, the {@link IconAtlas} is loaded with the class loader.
+ * <br>
+ * The background fill, the circle, and the scaled, tinted icon halves are drawn the same way libGDX's native gdx2d
+ * code draws them for {@link com.badlogic.gdx.graphics.Pixmap#fill()},
+ * {@link com.badlogic.gdx.graphics.Pixmap#fillCircle(int, int, int)}, and
+ * {@link com.badlogic.gdx.graphics.Pixmap#drawPixmap(com.badlogic.gdx.graphics.Pixmap, int, int, int, int, int, int, int, int)}
+ * with bilinear filtering and SourceOver blending, including the same float math, so the results should match.
+ * <br>
+ * The bilinear scaling is done one row at a time by a {@link BlendKernel}; by default, that is the fastest one
+ * available, which is a vectorized kernel if the optional {@code iconizer-gdx-vector} module is present and the JVM
+ * supports it, or plain Java code otherwise.
+ * <br>
+ * An IconCompositor has no mutable state of its own, so one instance can be shared by any number of threads. Each
+ * thread keeps a few small arrays of scratch space, which are reused for every icon that thread generates.
+ */
+public final class IconCompositor {
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    private final IconAtlas atlas;
+    private final BlendKernel kernel;
+
+    /**
+     * Creates an IconCompositor using the shared {@link IconAtlas}, loading it if necessary.
+     */
+    public IconCompositor() {
+        this(IconAtlas.get());
+    }
+
+    /**
+     * Creates an IconCompositor that draws icons from the given IconAtlas, using the fastest available
+     * {@link BlendKernel}.
+     * @param atlas the IconAtlas to draw icons from; typically {@link IconAtlas#get()}
+     */
+    public IconCompositor(IconAtlas atlas) {
+        this(atlas, BlendKernel.get());
+    }
+
+    /**
+     * Creates an IconCompositor that draws icons from the given IconAtlas, scaling them with the given
+     * {@link BlendKernel}. Every kernel produces the same pixels; this is mostly useful to compare their speed.
+     * @param atlas the IconAtlas to draw icons from; typically {@link IconAtlas#get()}
+     * @param kernel the BlendKernel to scale and blend icon halves with; typically {@link BlendKernel#get()}
+     */
+    public IconCompositor(IconAtlas atlas, BlendKernel kernel) {
+        this.atlas = atlas;
+        this.kernel = kernel;
+    }
+
+    /**
+     * Gets the {@link BlendKernel} this uses to scale and blend icon halves.
+     * @return the BlendKernel this uses
+     */
+    public BlendKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * Creates a new int array holding an icon with the given width and height, using the given long seed to randomly
+     * select colors and halves of icons to draw. Each int is one RGBA8888 pixel, in row-major order.
+     * @param width the width in pixels of the icon to produce
+     * @param height the height in pixels of the icon to produce
+     * @param seed a typically-unique long seed for random generation
+     * @return a new int array with length {@code width * height}
+     */
+    public int[] generate(int width, int height, long seed) {
+        IconMetrics.heapBytes(width * height * 4L);
+        return generateInto(new int[width * height], width, height, seed);
+    }
+
+    /**
+     * Creates a new {@link IndexedIcon} with the given width and height, using the given long seed to randomly select
+     * colors and halves of icons to draw. This has exactly the same pixels as {@link #generate(int, int, long)}, but
+     * stores them as one palette index per pixel, which takes a little over a quarter of the memory. The full RGBA
+     * pixels are drawn into a per-thread scratch array that is reused, so only the IndexedIcon itself is allocated.
+     * @param width the width in pixels of the icon to produce
+     * @param height the height in pixels of the icon to produce
+     * @param seed a typically-unique long seed for random generation
+     * @return a new IndexedIcon
+     */
+    public IndexedIcon generateIndexed(int width, int height, long seed) {
+        final int[] pixels = SCRATCH.get().icon(width * height);
+        generateInto(pixels, 0, width, height, seed);
+        final IndexedIcon icon = IndexedIcon.of(pixels, 0, width, height);
+        IconMetrics.heapBytes(icon.getMemoryBytes());
+        return icon;
+    }
+
+    /**
+     * Generates an icon into the int array {@code dst}, using the given long seed to randomly select colors and
+     * halves of icons to draw. Each int in dst is one RGBA8888 pixel, in row-major order, the same as
+     * {@link Iconizer#generateInto(int[], int, int, long)} would produce. This doesn't allocate anything.
+     * @param dst an int array with length at least {@code width * height}; will be overwritten
+     * @param width the width in pixels of the icon to produce
+     * @param height the height in pixels of the icon to produce
+     * @param seed a typically-unique long seed for random generation
+     * @return dst, after editing it
+     */
+    public int[] generateInto(int[] dst, int width, int height, long seed) {
+        return generateInto(dst, 0, width, height, seed);
+    }
+
+    /**
+     * Generates an icon into the int array {@code dst}, starting at index {@code offset}, using the given long seed to
+     * randomly select colors and halves of icons to draw. Each int is one RGBA8888 pixel, in row-major order, so this
+     * writes {@code width * height} ints starting at offset. This can be used to pack many icons into one array.
+     * This doesn't allocate anything.
+     * @param dst an int array with length at least {@code offset + width * height}; will be written to
+     * @param offset the first index in dst to write to
+     * @param width the width in pixels of the icon to produce
+     * @param height the height in pixels of the icon to produce
+     * @param seed a typically-unique long seed for random generation
+     * @return dst, after editing it
+     */
+    public int[] generateInto(int[] dst, int offset, int width, int height, long seed) {
+        if (offset < 0 || dst.length - offset < width * height)
+            throw new IllegalArgumentException("dst must have length at least offset + width * height.");
+        final long start = IconMetrics.start();
+        seed = Iconizer.scramble(seed);
+        long seed2 = Iconizer.scramble(seed);
+        Arrays.fill(dst, offset, offset + width * height, Iconizer.backgroundColor(seed));
+        fillCircle(dst, offset, width, height, width / 2, height / 2, width / 4, Iconizer.circleColor(seed));
+        final long drawStart = IconMetrics.stop(IconMetrics.Stage.BACKGROUND, start);
+
+        final int full = IconAtlas.ICON_SIZE, hf = full / 2;
+        draw(dst, offset, width, height, Iconizer.leftIcon(seed2), IconAtlas.LEFT, Iconizer.leftTint(seed),
+                0, 0, hf, full, 0, 0, width / 2, height);
+        draw(dst, offset, width, height, Iconizer.rightIcon(seed2), IconAtlas.RIGHT, Iconizer.rightTint(seed),
+                hf, 0, full, full, width / 2, 0, width, height);
+        IconMetrics.stop(IconMetrics.Stage.DRAW, drawStart);
+        IconMetrics.stop(IconMetrics.Stage.GENERATE, start);
+        IconMetrics.icon();
+        return dst;
+    }
+
+    /**
+     * Draws part of a tinted icon onto dst, the same way {@code Pixmap.drawPixmap()} does with both pixmaps set to
+     * bilinear filtering and SourceOver blending. Like drawPixmap(), this uses an unscaled copy if the source and
+     * destination rectangles have the same size, and bilinear scaling otherwise.
+     * <br>
+     * Only the part of the source inside the bounds of {@code half} in the {@link IconAtlas} is visited. Every sample
+     * outside those bounds has alpha 0, and blending a pixel with alpha 0 leaves dst unchanged, so skipping them gives
+     * exactly the same result.
+     */
+    private void draw(int[] dst, int offset, int width, int height, int icon, int half, int tint,
+                      int srcX, int srcY, int srcWidth, int srcHeight,
+                      int dstX, int dstY, int dstWidth, int dstHeight) {
+        if (atlas.isEmpty(icon, half)) return;
+        final int minX = atlas.minX(icon, half), minY = atlas.minY(icon, half);
+        final int maxX = atlas.maxX(icon, half), maxY = atlas.maxY(icon, half);
+        final byte[] mask = atlas.masks();
+        final int start = atlas.offset(icon), size = IconAtlas.ICON_SIZE;
+        if (srcWidth == dstWidth && srcHeight == dstHeight) {
+            tint &= 0xFFFFFF00;
+            for (int sy = srcY, dy = dstY; sy < srcY + srcHeight; sy++, dy++) {
+                if (sy < 0 || dy < 0 || sy < minY) continue;
+                if (sy >= size || dy >= height || sy > maxY) break;
+                for (int sx = srcX, dx = dstX; sx < srcX + srcWidth; sx++, dx++) {
+                    if (sx < 0 || dx < 0 || sx < minX) continue;
+                    if (sx >= size || dx >= width || sx > maxX) break;
+                    final int d = offset + dy * width + dx;
+                    dst[d] = blend(tint | mask[start + sy * size + sx] & 255, dst[d]);
+                }
+            }
+            return;
+        }
+        final float xRatio = ((float) srcWidth - 1) / dstWidth;
+        final float yRatio = ((float) srcHeight - 1) / dstHeight;
+        // Each destination pixel samples the source at (sx, sy) and up to one pixel right and down from there, so
+        // only rows and columns where that 2x2 area can overlap the bounds need to be drawn.
+        int iStart = 0, iEnd = dstHeight, jStart = 0, jEnd = dstWidth;
+        while (iStart < iEnd && (int) (iStart * yRatio) + srcY + 1 < minY) iStart++;
+        while (iEnd > iStart && (int) ((iEnd - 1) * yRatio) + srcY > maxY) iEnd--;
+        while (jStart < jEnd && (int) (jStart * xRatio) + srcX + 1 < minX) jStart++;
+        while (jEnd > jStart && (int) ((jEnd - 1) * xRatio) + srcX > maxX) jEnd--;
+        // Every row samples the same columns, so where each column samples is worked out once. When scaling up, several
+        // rows in a row sample the same source rows, so the four samples for each column are only read when that changes.
+        final Scratch scratch = SCRATCH.get().fit(dstWidth);
+        final int[] xs = scratch.xs, a1 = scratch.a1, a2 = scratch.a2, a3 = scratch.a3, a4 = scratch.a4;
+        final float[] xDiffs = scratch.xDiff;
+        int jFirst = jEnd, jLast = jStart;
+        for (int j = jStart; j < jEnd; j++) {
+            final int sx = (int) (j * xRatio) + srcX;
+            final int dx = j + dstX;
+            if (sx < 0 || dx < 0) continue;
+            if (sx >= size || dx >= width) break;
+            if (jFirst == jEnd) jFirst = j;
+            jLast = j + 1;
+            xs[j] = sx;
+            xDiffs[j] = (xRatio * j + srcX) - sx;
+        }
+        if (jFirst >= jLast) return;
+        int sampledY = -1;
+        for (int i = iStart; i < iEnd; i++) {
+            final int sy = (int) (i * yRatio) + srcY;
+            final int dy = i + dstY;
+            final float yDiff = (yRatio * i + srcY) - sy;
+            if (sy < 0 || dy < 0) continue;
+            if (sy >= size || dy >= height) break;
+            if (sy != sampledY) {
+                final boolean down = sy + 1 < srcHeight;
+                for (int j = jFirst; j < jLast; j++) {
+                    final int sx = xs[j];
+                    final boolean right = sx + 1 < srcWidth;
+                    final int s = start + sy * size + sx;
+                    a1[j] = mask[s] & 255;
+                    a2[j] = right ? mask[s + 1] & 255 : a1[j];
+                    a3[j] = down ? mask[s + size] & 255 : a1[j];
+                    a4[j] = right && down ? mask[s + size + 1] & 255 : a1[j];
+                }
+                sampledY = sy;
+            }
+            kernel.blendRow(dst, offset + dy * width + dstX + jFirst, jLast - jFirst, tint, a1, a2, a3, a4,
+                    xDiffs, yDiff, jFirst);
+        }
+    }
+
+    /**
+     * Fills a circle the same way {@code Pixmap.fillCircle()} does, with SourceOver blending. Some rows are drawn more
+     * than once, just like in gdx2d; because blending isn't idempotent for partly-transparent colors, that matters.
+     */
+    private static void fillCircle(int[] dst, int offset, int width, int height, int x0, int y0, int radius, int color) {
+        int f = 1 - radius;
+        int ddFx = 1;
+        int ddFy = -2 * radius;
+        int px = 0;
+        int py = radius;
+
+        hline(dst, offset, width, height, x0, x0, y0 + radius, color);
+        hline(dst, offset, width, height, x0, x0, y0 - radius, color);
+        hline(dst, offset, width, height, x0 - radius, x0 + radius, y0, color);
+
+        while (px < py) {
+            if (f >= 0) {
+                py--;
+                ddFy += 2;
+                f += ddFy;
+            }
+            px++;
+            ddFx += 2;
+            f += ddFx;
+            hline(dst, offset, width, height, x0 - px, x0 + px, y0 + py, color);
+            hline(dst, offset, width, height, x0 - px, x0 + px, y0 - py, color);
+            hline(dst, offset, width, height, x0 - py, x0 + py, y0 + px, color);
+            hline(dst, offset, width, height, x0 - py, x0 + py, y0 - px, color);
+        }
+    }
+
+    private static void hline(int[] dst, int offset, int width, int height, int x1, int x2, int y, int color) {
+        if (y < 0 || y >= height) return;
+        if (x1 > x2) {
+            int tmp = x1;
+            x1 = x2;
+            x2 = tmp;
+        }
+        if (x1 >= width) return;
+        if (x2 < 0) return;
+        if (x1 < 0) x1 = 0;
+        if (x2 >= width) x2 = width - 1;
+        for (int i = offset + y * width + x1, n = offset + y * width + x2; i <= n; i++) {
+            dst[i] = blend(color, dst[i]);
+        }
+    }
+
+    /**
+     * Blends the RGBA8888 color src over dst, using the same integer math gdx2d uses for SourceOver.
+     */
+    static int blend(int src, int dst) {
+        final int srcA = src & 255;
+        if (srcA == 0) return dst;
+        int dstA = dst & 255;
+        dstA -= dstA * srcA / 255;
+        final int a = dstA + srcA;
+        return ((dst >>> 24) * dstA + (src >>> 24) * srcA) / a << 24
+                | ((dst >>> 16 & 255) * dstA + (src >>> 16 & 255) * srcA) / a << 16
+                | ((dst >>> 8 & 255) * dstA + (src >>> 8 & 255) * srcA) / a << 8
+                | a;
+    }
+
+    /**
+     * Per-thread scratch space for {@link #draw}: where each destination column samples the source, and the four
+     * alphas it samples from the current source row and the one below. It also holds whole icons for
+     * {@link #generateIndexed(int, int, long)}.
+     */
+    private static final class Scratch {
+        int[] xs = new int[0], a1 = xs, a2 = xs, a3 = xs, a4 = xs, pixels = xs;
+        float[] xDiff = new float[0];
+
+        int[] icon(int size) {
+            if (pixels.length < size) {
+                pixels = new int[size];
+                IconMetrics.heapBytes(size * 4L);
+            }
+            return pixels;
+        }
+
+        Scratch fit(int columns) {
+            if (xs.length < columns) {
+                xs = new int[columns];
+                a1 = new int[columns];
+                a2 = new int[columns];
+                a3 = new int[columns];
+                a4 = new int[columns];
+                xDiff = new float[columns];
+            }
+            return this;
+        }
+    }
+}
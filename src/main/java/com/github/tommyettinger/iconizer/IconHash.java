@@ -0,0 +1,485 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Computes 64-bit perceptual hashes of icons, so icons that look alike get hashes that differ in only a few bits.
+ * Rather than looking at rendered pixels, this hashes what an icon is drawn from, as given by an {@link IconSpec}: the
+ * shapes of its two halves, the hue of their tint, and the hue of the background. Hashing rendered pixels lets the
+ * background and circle, which look about the same in every icon, drown out the halves that actually tell icons
+ * apart; it also changes the hash a little from one size to another. This hash doesn't depend on size at all, since
+ * every size is drawn from the same {@link IconAtlas} masks.
+ * <br>
+ * Each half contributes 24 bits: its alpha mask is averaged down to an 18x36 grid, and the 24 lowest frequencies of a
+ * discrete cosine transform of that grid are each compared to the median of that frequency over every icon that can
+ * be drawn in that half. Comparing to the median over all icons, rather than over one icon's own frequencies, makes
+ * every bit split the icons evenly, so unrelated shapes disagree in as many bits as possible. The left tint's hue and
+ * the background's hue contribute 8 bits each, as a circular thermometer code, so two hues 1/16 of the way around the
+ * color wheel apart differ by one bit, and opposite hues differ by all 8. The circle is ignored, since its color always
+ * follows the background's, and so are lightness and saturation, which vary much less than hue.
+ * <br>
+ * Icons that weren't generated from a known seed, such as ones that were edited, loaded from disk, or drawn by
+ * {@link GpuIconizer}, can be hashed from their pixels with {@link #hash(Pixmap)} or {@link #hash(int[], int, int)}.
+ * Those work out each half's tint and alpha mask from the image, and then make the same bits from them, so an icon
+ * hashed from its pixels lands within a few bits of its spec hash.
+ * <br>
+ * Compare hashes with {@link #distance(long, long)}, or store many of them in an {@link IconHashIndex}. Two unrelated
+ * icons typically differ by around 32 bits; for how many bits similar icons differ by, see
+ * {@link IconHashIndex#DEFAULT_MAX_DISTANCE}.
+ */
+public final class IconHash {
+    /**
+     * How many shape bits each half contributes.
+     */
+    private static final int SHAPE_BITS = 24;
+    /**
+     * The width of the grid each half's mask is averaged down to; its height is twice this.
+     */
+    private static final int GRID = 18;
+    /**
+     * How many bits of each color channel the pixel hash uses to find the most common colors.
+     */
+    private static final int BIN_BITS = 5;
+
+    private static Shapes shapes;
+
+    /**
+     * The shape bits of every half of every icon, with what is needed to make the same bits from any other mask.
+     */
+    private static final class Shapes {
+        /**
+         * The 24 shape bits of every half of every icon, indexed by {@code icon << 1 | half}.
+         */
+        final int[] bits;
+        /**
+         * The median of each frequency over the icons that can be drawn in each half, indexed by
+         * {@code half * SHAPE_BITS + n}.
+         */
+        final double[] medians;
+        /**
+         * The horizontal frequency of each of the 24 bits in cosX, and the vertical frequency in cosY.
+         */
+        final double[][] cosX, cosY;
+        final int[] vs;
+
+        Shapes(int[] bits, double[] medians, double[][] cosX, double[][] cosY, int[] vs) {
+            this.bits = bits;
+            this.medians = medians;
+            this.cosX = cosX;
+            this.cosY = cosY;
+            this.vs = vs;
+        }
+
+        /**
+         * Transforms an 18x36 grid of summed alpha into the 24 lowest frequencies, starting at {@code out[at]}.
+         * @param columns scratch space with length at least {@code cosY.length * GRID}
+         */
+        void transform(double[] grid, double[] columns, double[] out, int at) {
+            final int width = GRID, height = GRID * 2, rows = cosY.length;
+            // The transform is separable, so each column is transformed once for every vertical frequency.
+            Arrays.fill(columns, 0.0);
+            for (int v = 0; v < rows; v++) {
+                final double[] cy = cosY[v];
+                for (int y = 0, g = 0; y < height; y++) {
+                    final double c = cy[y];
+                    for (int x = 0; x < width; x++, g++) {
+                        columns[v * width + x] += grid[g] * c;
+                    }
+                }
+            }
+            for (int n = 0; n < SHAPE_BITS; n++) {
+                final double[] cx = cosX[n];
+                double sum = 0.0;
+                for (int x = 0, c = vs[n] * width; x < width; x++, c++) {
+                    sum += columns[c] * cx[x];
+                }
+                out[at + n] = sum;
+            }
+        }
+
+        /**
+         * Gets the 24 shape bits of an 18x36 grid of summed alpha, as if it were drawn in the given half.
+         */
+        int bits(double[] grid, int half) {
+            final double[] coefficients = new double[SHAPE_BITS];
+            transform(grid, new double[cosY.length * GRID], coefficients, 0);
+            int bits = 0;
+            for (int n = 0; n < SHAPE_BITS; n++) {
+                if (coefficients[n] > medians[half * SHAPE_BITS + n])
+                    bits |= 1 << n;
+            }
+            return bits;
+        }
+    }
+
+    private IconHash() {
+    }
+
+    /**
+     * Computes the hash of the icon that {@code seed} would produce, at any size. This is the same as
+     * {@code hash(Iconizer.describe(seed))}.
+     * @param seed a typically-unique long seed, as given to {@link Iconizer#generate(int, int, long)}
+     * @return the 64-bit perceptual hash of that icon
+     */
+    public static long hash(long seed) {
+        return hash(Iconizer.describe(seed));
+    }
+
+    /**
+     * Computes the hash of the icon that {@code spec} describes, at any size. The first call loads the shared
+     * {@link IconAtlas} if needed, and works out the shape bits for every icon, which takes a fraction of a second;
+     * after that, this only does a little math on the colors.
+     * @param spec describes an icon; typically from {@link Iconizer#describe(long)}
+     * @return the 64-bit perceptual hash of that icon
+     */
+    public static long hash(IconSpec spec) {
+        final int[] shapes = shapes().bits;
+        return combine(shapes[spec.leftIcon << 1 | IconAtlas.LEFT], shapes[spec.rightIcon << 1 | IconAtlas.RIGHT],
+                hueCode(spec.leftTint), hueCode(spec.background));
+    }
+
+    /**
+     * Computes the hash of an icon from its pixels, for icons that weren't just generated from a known seed, such as
+     * ones that were edited, loaded from disk, or drawn by {@link GpuIconizer}. The Pixmap can have any format and
+     * size; see {@link #hash(int[], int, int)} for how this works. An icon generated from a seed usually hashes within
+     * a few bits of {@link #hash(long)} for that seed this way, but {@link #hash(long)} is much faster.
+     * @param pixmap an icon, laid out like {@link Iconizer#generate(int, int, long)} draws them
+     * @return the 64-bit perceptual hash of that icon
+     */
+    public static long hash(Pixmap pixmap) {
+        final int width = pixmap.getWidth(), height = pixmap.getHeight();
+        final int[] rgba = new int[width * height];
+        if (pixmap.getFormat() == Pixmap.Format.RGBA8888) {
+            final ByteBuffer pixels = pixmap.getPixels().duplicate();
+            pixels.order(ByteOrder.BIG_ENDIAN).position(0);
+            pixels.asIntBuffer().get(rgba);
+        } else {
+            for (int y = 0, i = 0; y < height; y++) {
+                for (int x = 0; x < width; x++, i++) {
+                    rgba[i] = pixmap.getPixel(x, y);
+                }
+            }
+        }
+        return hash(rgba, width, height);
+    }
+
+    /**
+     * Computes the hash of an icon from its pixels, for icons that weren't just generated from a known seed, such as
+     * ones that were edited, loaded from disk, or drawn by {@link GpuIconizer}. The icon must be laid out the way
+     * {@link Iconizer#generate(int, int, long)} draws them: a background, a circle in the middle, and one tinted icon
+     * in each half.
+     * <br>
+     * The background is the most common color around the edges, the circle's color is the most common color that
+     * only appears inside where the circle is, and each half's tint is the most common other color in that half that
+     * isn't a blend of the tint into what's under it; colors only need to be close to count as the same. Each pixel's alpha is then worked out from how far it is from the
+     * background or circle toward the tint, and that alpha mask is averaged down and hashed just like the
+     * {@link IconAtlas} masks are, so this agrees with {@link #hash(IconSpec)} when the pixels match the spec. This
+     * allocates about 300 KB of temporary arrays, plus some per pixel, so it is much slower than hashing a spec.
+     * @param rgba an icon's RGBA8888 pixels, in row-major order, such as from {@link IconCompositor#generate(int, int, long)};
+     *             only the first {@code width * height} are used
+     * @param width the width of the icon in pixels; at least 2
+     * @param height the height of the icon in pixels; at least 1
+     * @return the 64-bit perceptual hash of that icon
+     */
+    public static long hash(int[] rgba, int width, int height) {
+        if (width < 2 || height < 1 || rgba.length < width * height)
+            throw new IllegalArgumentException("rgba must hold width * height pixels, with width >= 2 and height >= 1.");
+        final int[] counts = new int[1 << BIN_BITS * 3], others = new int[1 << BIN_BITS * 3];
+        // The background is the most common color around the edges.
+        for (int x = 0; x < width; x++) {
+            counts[bin(rgba[x])]++;
+            counts[bin(rgba[(height - 1) * width + x])]++;
+        }
+        for (int y = 1; y < height - 1; y++) {
+            counts[bin(rgba[y * width])]++;
+            counts[bin(rgba[y * width + width - 1])]++;
+        }
+        final int backgroundBin = mostCommon(counts, -1, -1);
+        final int background = average(rgba, width, 0, width, height, backgroundBin);
+        // The circle's color is the most common one that is (almost) only inside the circle.
+        Arrays.fill(counts, 0);
+        final int cx = width / 2, cy = height / 2, radius = width / 4;
+        final int inner = radius * radius + radius, outer = (radius + 2) * (radius + 2);
+        for (int y = 0, i = 0; y < height; y++) {
+            for (int x = 0; x < width; x++, i++) {
+                final int d = (x - cx) * (x - cx) + (y - cy) * (y - cy);
+                if (d <= inner) counts[bin(rgba[i])]++;
+                else if (d > outer) others[bin(rgba[i])]++;
+            }
+        }
+        int circleBin = -1;
+        for (int b = 0, best = Math.max(1, inner / 16); b < counts.length; b++) {
+            if (b != backgroundBin && counts[b] > best && others[b] <= counts[b] >> 4) {
+                best = counts[b];
+                circleBin = b;
+            }
+        }
+        final int circle = circleBin == -1 ? background : average(rgba, width, 0, width, height, circleBin);
+
+        final Shapes shapes = shapes();
+        final int half = width / 2;
+        final int leftTint = tint(rgba, width, height, 0, half, background, circle, backgroundBin, circleBin, counts);
+        final int rightTint = tint(rgba, width, height, half, width - half, background, circle, backgroundBin,
+                circleBin, counts);
+        final int left = halfBits(shapes, rgba, width, height, 0, half, IconAtlas.LEFT, leftTint, background, circle);
+        final int right = halfBits(shapes, rgba, width, height, half, width - half, IconAtlas.RIGHT, rightTint,
+                background, circle);
+        return combine(left, right, hueCode(leftTint), hueCode(background));
+    }
+
+    /**
+     * Interleaves the parts of a hash; IconHashIndex splits hashes into four 16-bit segments, so each segment gets an
+     * equal share of every part.
+     */
+    private static long combine(int left, int right, int tint, int background) {
+        long hash = 0L;
+        for (int s = 0; s < 4; s++) {
+            final long segment = (left >>> s * 6 & 63) | (right >>> s * 6 & 63) << 6
+                    | (tint >>> s * 2 & 3) << 12 | (background >>> s * 2 & 3) << 14;
+            hash |= segment << (s << 4);
+        }
+        return hash;
+    }
+
+    /**
+     * Gets how many bits differ between two hashes; 0 means the icons look the same, and 64 is as different as
+     * possible.
+     * @param a a hash from {@link #hash(IconSpec)} or {@link #hash(long)}
+     * @param b another hash
+     * @return the Hamming distance between a and b, from 0 to 64 inclusive
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * Gets an 8-bit circular thermometer code for the hue of an RGBA8888 color; the alpha is ignored. The hue is split
+     * into 16 steps, and each step around the color wheel flips one more bit, until the opposite hue has flipped all 8.
+     */
+    private static int hueCode(int rgba) {
+        final int r = rgba >>> 24, g = rgba >>> 16 & 255, b = rgba >>> 8 & 255;
+        final int max = Math.max(r, Math.max(g, b)), d = max - Math.min(r, Math.min(g, b));
+        float hue = 0f;
+        if (d != 0) {
+            if (max == r) hue = (g - b) / (float) d;
+            else if (max == g) hue = 2f + (b - r) / (float) d;
+            else hue = 4f + (r - g) / (float) d;
+            hue /= 6f;
+            if (hue < 0f) hue += 1f;
+        }
+        final int step = Math.min((int) (hue * 16f), 15);
+        int code = 0;
+        for (int i = 0; i < 8; i++) {
+            if ((step - i & 15) < 8)
+                code |= 1 << i;
+        }
+        return code;
+    }
+
+    /**
+     * Gets which bin of similar colors an RGBA8888 color is in; alpha is ignored.
+     */
+    private static int bin(int rgba) {
+        final int shift = 8 - BIN_BITS, mask = (1 << BIN_BITS) - 1;
+        return (rgba >>> 24 + shift & mask) << BIN_BITS * 2 | (rgba >>> 16 + shift & mask) << BIN_BITS
+                | (rgba >>> 8 + shift & mask);
+    }
+
+    /**
+     * Gets the bin with the highest count, other than the two given bins, or -1 if every other count is 0.
+     */
+    private static int mostCommon(int[] counts, int skip, int skipToo) {
+        int best = -1;
+        for (int b = 0, most = 0; b < counts.length; b++) {
+            if (counts[b] > most && b != skip && b != skipToo) {
+                most = counts[b];
+                best = b;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the average RGB color, with full alpha, of the pixels in the given columns that are in the given bin.
+     */
+    private static int average(int[] rgba, int width, int x0, int w, int height, int bin) {
+        long r = 0L, g = 0L, b = 0L, n = 0L;
+        for (int y = 0; y < height; y++) {
+            for (int x = x0, i = y * width + x0; x < x0 + w; x++, i++) {
+                final int c = rgba[i];
+                if (bin(c) == bin) {
+                    r += c >>> 24;
+                    g += c >>> 16 & 255;
+                    b += c >>> 8 & 255;
+                    n++;
+                }
+            }
+        }
+        if (n == 0L) return 255;
+        return (int) ((r + n / 2) / n) << 24 | (int) ((g + n / 2) / n) << 16 | (int) ((b + n / 2) / n) << 8 | 255;
+    }
+
+    /**
+     * Gets the square of the distance between two RGBA8888 colors, ignoring alpha.
+     */
+    private static int distance2(int a, int b) {
+        final int r = (a >>> 24) - (b >>> 24), g = (a >>> 16 & 255) - (b >>> 16 & 255), l = (a >>> 8 & 255) - (b >>> 8 & 255);
+        return r * r + g * g + l * l;
+    }
+
+    /**
+     * Gets the tint of the half of an icon in the given columns: the average of its most common colors, other than
+     * the background's and the circle's. Only colors at least half as far from the background and circle as the
+     * farthest color are counted, so the edges of a small icon, which blend into what is under them, can't outnumber
+     * its solid middle. If the half has nothing else, this is the background color.
+     */
+    private static int tint(int[] rgba, int width, int height, int x0, int w, int background, int circle,
+                            int backgroundBin, int circleBin, int[] counts) {
+        int farthest = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = x0, i = y * width + x0; x < x0 + w; x++, i++) {
+                farthest = Math.max(farthest, Math.min(distance2(rgba[i], background), distance2(rgba[i], circle)));
+            }
+        }
+        Arrays.fill(counts, 0);
+        for (int y = 0; y < height; y++) {
+            for (int x = x0, i = y * width + x0; x < x0 + w; x++, i++) {
+                if (Math.min(distance2(rgba[i], background), distance2(rgba[i], circle)) << 2 >= farthest)
+                    counts[bin(rgba[i])]++;
+            }
+        }
+        final int bin = mostCommon(counts, backgroundBin, circleBin);
+        return average(rgba, width, x0, w, height, bin == -1 ? backgroundBin : bin);
+    }
+
+    /**
+     * Works out the alpha mask of the half of an icon in the given columns, averages it down to the same 18x36 grid
+     * that the atlas masks are, and gets its 24 shape bits. Each pixel is taken to be a blend from either the
+     * background or the circle color toward the tint, whichever fits it best.
+     */
+    private static int halfBits(Shapes shapes, int[] rgba, int width, int height, int x0, int w, int half, int tint,
+                                int background, int circle) {
+        final int tr = tint >>> 24, tg = tint >>> 16 & 255, tb = tint >>> 8 & 255;
+        final int[] unders = {background, circle};
+        final float[] alpha = new float[w * height];
+        for (int y = 0, a = 0; y < height; y++) {
+            for (int x = x0, i = y * width + x0; x < x0 + w; x++, i++, a++) {
+                final int c = rgba[i];
+                float bestAlpha = 0f, bestError = Float.POSITIVE_INFINITY;
+                for (int u = 0; u < unders.length; u++) {
+                    final int under = unders[u];
+                    final int ur = under >>> 24, ug = under >>> 16 & 255, ub = under >>> 8 & 255;
+                    final int dr = tr - ur, dg = tg - ug, db = tb - ub, length = dr * dr + dg * dg + db * db;
+                    final int pr = (c >>> 24) - ur, pg = (c >>> 16 & 255) - ug, pb = (c >>> 8 & 255) - ub;
+                    float t = length == 0 ? 0f : (pr * dr + pg * dg + pb * db) / (float) length;
+                    t = Math.min(Math.max(t, 0f), 1f);
+                    final float er = pr - t * dr, eg = pg - t * dg, eb = pb - t * db, error = er * er + eg * eg + eb * eb;
+                    if (error < bestError) {
+                        bestError = error;
+                        bestAlpha = t;
+                    }
+                }
+                alpha[a] = bestAlpha;
+            }
+        }
+        // The mask is sampled back where each atlas pixel was drawn. IconCompositor draws the left half from 36
+        // columns, and the right half as if from all 72, each pixel j sampling the atlas at j * (columns - 1) / width
+        // and likewise for rows, unless the half is drawn at exactly its own size.
+        final int size = IconAtlas.ICON_SIZE, atlasHalf = size / 2;
+        final int columns = half == IconAtlas.LEFT ? atlasHalf : size, drawn = half == IconAtlas.LEFT ? w : width;
+        final boolean same = columns == drawn && size == height;
+        final float xRatio = same ? 1f : (columns - 1f) / drawn, yRatio = same ? 1f : (size - 1f) / height;
+        // Each cell of the grid holds the sum of a 2x2 area of alpha bytes, the same as the atlas masks give.
+        final double[] grid = new double[GRID * GRID * 2];
+        for (int sy = 0; sy < size; sy++) {
+            final float fy = Math.min(sy / yRatio, height - 1f);
+            final int y = (int) fy, y1 = Math.min(y + 1, height - 1);
+            final float dy = fy - y;
+            for (int sx = 0; sx < atlasHalf; sx++) {
+                final float fx = Math.min(sx / xRatio, w - 1f);
+                final int x = (int) fx, x1 = Math.min(x + 1, w - 1);
+                final float dx = fx - x;
+                final float top = alpha[y * w + x] + (alpha[y * w + x1] - alpha[y * w + x]) * dx;
+                final float bottom = alpha[y1 * w + x] + (alpha[y1 * w + x1] - alpha[y1 * w + x]) * dx;
+                grid[(sy >> 1) * GRID + (sx >> 1)] += (top + (bottom - top) * dy) * 255.0;
+            }
+        }
+        return shapes.bits(grid, half);
+    }
+
+    /**
+     * Gets the shape bits of every half of every icon, and what is needed to make more, working them out from the
+     * shared IconAtlas the first time this is called.
+     */
+    private static synchronized Shapes shapes() {
+        if (shapes == null)
+            shapes = computeShapes(IconAtlas.get());
+        return shapes;
+    }
+
+    private static Shapes computeShapes(IconAtlas atlas) {
+        final int size = IconAtlas.ICON_SIZE, half = size / 2, width = GRID, height = GRID * 2;
+        // The 24 lowest frequencies, ordered by u + v and then by v, as (u, v) pairs.
+        final int[] us = new int[SHAPE_BITS], vs = new int[SHAPE_BITS];
+        int rows = 0;
+        for (int sum = 0, n = 0; n < SHAPE_BITS; sum++) {
+            for (int v = 0; v <= sum && n < SHAPE_BITS; v++, n++) {
+                us[n] = sum - v;
+                vs[n] = v;
+                rows = Math.max(rows, v + 1);
+            }
+        }
+        final double[][] cosX = new double[SHAPE_BITS][width], cosY = new double[rows][height];
+        for (int n = 0; n < SHAPE_BITS; n++) {
+            for (int x = 0; x < width; x++) {
+                cosX[n][x] = Math.cos(Math.PI * (2 * x + 1) * us[n] / (2.0 * width));
+            }
+        }
+        for (int v = 0; v < rows; v++) {
+            for (int y = 0; y < height; y++) {
+                cosY[v][y] = Math.cos(Math.PI * (2 * y + 1) * v / (2.0 * height));
+            }
+        }
+        final byte[] mask = atlas.masks();
+        final int count = atlas.count;
+        final double[] medians = new double[2 * SHAPE_BITS];
+        final Shapes shapes = new Shapes(new int[count * 2], medians, cosX, cosY, vs);
+        final double[] coefficients = new double[count * 2 * SHAPE_BITS];
+        final double[] grid = new double[width * height], columns = new double[rows * width];
+        for (int icon = 0; icon < count; icon++) {
+            for (int h = IconAtlas.LEFT; h <= IconAtlas.RIGHT; h++) {
+                Arrays.fill(grid, 0.0);
+                for (int y = 0, start = atlas.offset(icon) + h * half; y < size; y++) {
+                    for (int x = 0; x < half; x++) {
+                        grid[(y >> 1) * width + (x >> 1)] += mask[start + y * size + x] & 255;
+                    }
+                }
+                shapes.transform(grid, columns, coefficients, (icon << 1 | h) * SHAPE_BITS);
+            }
+        }
+        // Each frequency is compared to its median over the icons Iconizer can draw in that half.
+        final int split = IconNames.COUNT / 2;
+        final int[] bits = shapes.bits;
+        for (int h = IconAtlas.LEFT; h <= IconAtlas.RIGHT; h++) {
+            final int from = h == IconAtlas.LEFT ? 0 : split, to = h == IconAtlas.LEFT ? split : count;
+            final double[] values = new double[to - from];
+            for (int n = 0; n < SHAPE_BITS; n++) {
+                for (int icon = from; icon < to; icon++) {
+                    values[icon - from] = coefficients[(icon << 1 | h) * SHAPE_BITS + n];
+                }
+                Arrays.sort(values);
+                final double median = values[values.length >>> 1];
+                medians[h * SHAPE_BITS + n] = median;
+                for (int icon = 0; icon < count; icon++) {
+                    if (coefficients[(icon << 1 | h) * SHAPE_BITS + n] > median)
+                        bits[icon << 1 | h] |= 1 << n;
+                }
+            }
+        }
+        return shapes;
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.util.Arrays;
+
+/**
+ * Stores many 64-bit perceptual hashes from {@link IconHash}, and quickly answers whether any stored hash is within
+ * some Hamming distance of a new one. This is meant to hold every icon already issued, so a new icon can be checked
+ * against all of them; see {@link Iconizer#generateDistinct(long, int, int, IconHashIndex)}.
+ * <br>
+ * This uses multi-index hashing. Each hash is split into four 16-bit segments, and every segment gets its own table
+ * from segment value to the hashes with that value. By the pigeonhole principle, two hashes that differ in at most
+ * {@code d} bits must have at least one segment that differs in at most {@code d / 4} bits (rounding down), so a query
+ * only has to look in the buckets for segment values that close to its own, rather than compare against every hash.
+ * With the default maxDistance of 4, that is 17 buckets per segment. {@link IconHash} spreads every part of an icon
+ * across all four segments, so with a million icons stored, each bucket holds about 20 hashes on average.
+ * <br>
+ * An IconHashIndex is not thread-safe; synchronize on it if it is shared.
+ */
+public final class IconHashIndex {
+    /**
+     * The maxDistance used by {@link #IconHashIndex()}, which decides how close two hashes must be for their icons to
+     * count as similar. This was chosen by measuring distances between the hashes of random icons. Icons whose
+     * hashes are within 4 bits almost always have the same or nearly the same shapes in both halves, and hues no more
+     * than a few steps apart; only about one random pair in 20 million is that close while having clearly different
+     * shapes or colors, and about one in a million is that close at all. With a million random icons stored, about 60%
+     * of new random icons are still novel. At 6 bits, about one random pair in a million is close while clearly
+     * different, and only about 16% of new icons are novel once a million are stored.
+     */
+    public static final int DEFAULT_MAX_DISTANCE = 4;
+
+    private final int maxDistance;
+    private final int[] probes;
+    private final IntArray[][] tables = new IntArray[4][65536];
+    private final LongArray hashes = new LongArray();
+
+    /**
+     * Creates an empty IconHashIndex that can answer queries up to a Hamming distance of
+     * {@link #DEFAULT_MAX_DISTANCE}.
+     */
+    public IconHashIndex() {
+        this(DEFAULT_MAX_DISTANCE);
+    }
+
+    /**
+     * Creates an empty IconHashIndex that can answer queries up to the given Hamming distance. Larger distances need
+     * more buckets checked per query, and so every query is slower; each step of 4 increases that sharply.
+     * @param maxDistance the largest distance that queries can use, from 0 to 15 inclusive
+     */
+    public IconHashIndex(int maxDistance) {
+        if (maxDistance < 0 || maxDistance > 15)
+            throw new IllegalArgumentException("maxDistance must be between 0 and 15, inclusive.");
+        this.maxDistance = maxDistance;
+        // Every 16-bit pattern with at most maxDistance / 4 bits set, fewest bits first, to XOR with a segment.
+        final int radius = maxDistance >>> 2;
+        final IntArray masks = new IntArray();
+        for (int bits = 0; bits <= radius; bits++) {
+            for (int m = 0; m < 65536; m++) {
+                if (Integer.bitCount(m) == bits)
+                    masks.add(m);
+            }
+        }
+        probes = masks.toArray();
+    }
+
+    /**
+     * Gets the largest Hamming distance this can search, as given to the constructor.
+     * @return the largest distance that queries can use
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Gets how many hashes have been added.
+     * @return the number of hashes stored
+     */
+    public int size() {
+        return hashes.size;
+    }
+
+    /**
+     * Gets the hash that was added with the given id.
+     * @param id an id returned by {@link #add(long)}
+     * @return the hash stored with that id
+     */
+    public long get(int id) {
+        return hashes.get(id);
+    }
+
+    /**
+     * Adds a hash, even if an equal or similar hash is already present.
+     * @param hash a hash from {@link IconHash}
+     * @return the id of the added hash, which is how many hashes were added before it
+     */
+    public int add(long hash) {
+        final int id = hashes.size;
+        hashes.add(hash);
+        for (int i = 0; i < 4; i++) {
+            final int key = (int) (hash >>> (i << 4)) & 0xFFFF;
+            IntArray bucket = tables[i][key];
+            if (bucket == null)
+                tables[i][key] = bucket = new IntArray(4);
+            bucket.add(id);
+        }
+        return id;
+    }
+
+    /**
+     * Finds a stored hash within {@code distance} bits of {@code hash}, if there is one.
+     * @param hash a hash from {@link IconHash}
+     * @param distance the largest Hamming distance to accept; must not be more than {@link #getMaxDistance()}
+     * @return the id of some stored hash within that distance, or -1 if there is none
+     */
+    public int findWithin(long hash, int distance) {
+        if (distance > maxDistance)
+            throw new IllegalArgumentException("distance must not be more than " + maxDistance + ".");
+        final long[] stored = hashes.items;
+        final int[] probes = this.probes;
+        final int radius = distance >>> 2;
+        for (int i = 0; i < 4; i++) {
+            final IntArray[] table = tables[i];
+            final int key = (int) (hash >>> (i << 4)) & 0xFFFF;
+            for (int p = 0; p < probes.length && Integer.bitCount(probes[p]) <= radius; p++) {
+                final IntArray bucket = table[key ^ probes[p]];
+                if (bucket == null) continue;
+                final int[] ids = bucket.items;
+                for (int j = 0, n = bucket.size; j < n; j++) {
+                    if (Long.bitCount(stored[ids[j]] ^ hash) <= distance)
+                        return ids[j];
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether any stored hash is within {@link #getMaxDistance()} bits of {@code hash}.
+     * @param hash a hash from {@link IconHash}
+     * @return true if a similar hash is stored, or false if hash is novel
+     */
+    public boolean containsSimilar(long hash) {
+        return findWithin(hash, maxDistance) != -1;
+    }
+
+    /**
+     * Removes every stored hash.
+     */
+    public void clear() {
+        hashes.clear();
+        for (int i = 0; i < 4; i++) {
+            Arrays.fill(tables[i], null);
+        }
+    }
+}
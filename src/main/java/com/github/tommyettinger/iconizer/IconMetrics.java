@@ -0,0 +1,428 @@
+package com.github.tommyettinger.iconizer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Optional instrumentation for icon generation: how long each stage takes, how many icons were made, how many bytes
+ * were allocated for them, and how often {@link IconCache}s hit. Metrics are off by default, and then each stage only
+ * costs one read of a volatile boolean. Turn them on with {@link #setEnabled(boolean)}, or by starting the JVM with
+ * {@code -Diconizer.metrics=true}, then read everything recorded so far with {@link #snapshot()}.
+ * <br>
+ * Stage times are kept in histograms with one bucket per power of two nanoseconds, which is precise enough to tell
+ * which stage dominates and cheap enough to update from many threads at once. Every Iconizer, IconCompositor, and
+ * IconCache shares the same metrics. A {@link Listener} can also be told about each stage as it finishes; listeners
+ * registered as services are added automatically, which is how the optional iconizer-gdx-jfr module turns stages into
+ * Java Flight Recorder events.
+ */
+public final class IconMetrics {
+    /**
+     * The parts of making an icon that are timed separately.
+     */
+    public enum Stage {
+        /**
+         * Loading the shared {@link IconAtlas} from the classpath; this only happens once.
+         */
+        LOAD,
+        /**
+         * Copying the two source icons into Pixmaps, tinted; only {@link Iconizer} does this.
+         */
+        TINT,
+        /**
+         * Filling the background and the circle.
+         */
+        BACKGROUND,
+        /**
+         * Scaling and blending the two icon halves over the background.
+         */
+        DRAW,
+        /**
+         * All of making one icon, from the seed to finished pixels.
+         */
+        GENERATE,
+        /**
+         * Encoding an icon as a PNG with {@link IconPng}.
+         */
+        ENCODE
+    }
+
+    /**
+     * Is told about each stage as it finishes, while metrics are enabled. This is called on whichever thread ran the
+     * stage, so it must be thread-safe and quick.
+     */
+    public interface Listener {
+        /**
+         * Called after a stage finishes.
+         * @param stage which stage finished
+         * @param nanos how many nanoseconds it took
+         */
+        void stageFinished(Stage stage, long nanos);
+    }
+
+    /**
+     * How many buckets each stage's histogram has; bucket {@code b} counts times from {@code 2 ** (b - 1)} up to
+     * {@code 2 ** b - 1} nanoseconds, and bucket 0 counts times of 0.
+     */
+    public static final int BUCKETS = 64;
+
+    /**
+     * Returned by {@link #start()} when metrics are disabled, so the matching {@link #stop(Stage, long)} does nothing.
+     */
+    static final long OFF = Long.MIN_VALUE;
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final AtomicLongArray counts = new AtomicLongArray(STAGES.length * BUCKETS);
+    private static final AtomicLongArray totals = new AtomicLongArray(STAGES.length);
+    private static final AtomicLongArray maxima = new AtomicLongArray(STAGES.length);
+    private static final AtomicLong icons = new AtomicLong();
+    private static final AtomicLong nativeBytes = new AtomicLong();
+    private static final AtomicLong heapBytes = new AtomicLong();
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong cacheMisses = new AtomicLong();
+
+    private static volatile boolean enabled = Boolean.getBoolean("iconizer.metrics");
+    private static volatile Listener[] listeners = loadListeners();
+
+    private IconMetrics() {
+    }
+
+    private static Listener[] loadListeners() {
+        Listener[] found = new Listener[0];
+        try {
+            Iterator<Listener> it = ServiceLoader.load(Listener.class, IconMetrics.class.getClassLoader()).iterator();
+            while (it.hasNext()) {
+                try {
+                    Listener listener = it.next();
+                    found = Arrays.copyOf(found, found.length + 1);
+                    found[found.length - 1] = listener;
+                } catch (ServiceConfigurationError | LinkageError ignored) {
+                    // A listener that needs a newer JDK, such as the JFR one, just isn't used.
+                }
+            }
+        } catch (ServiceConfigurationError | SecurityException ignored) {
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether metrics are being recorded.
+     * @return true if metrics are enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops recording metrics. Everything recorded so far is kept either way; use {@link #reset()} to
+     * clear it.
+     * @param enabled true to record metrics, false to stop
+     */
+    public static void setEnabled(boolean enabled) {
+        IconMetrics.enabled = enabled;
+    }
+
+    /**
+     * Adds a Listener to be told about each stage as it finishes, while metrics are enabled.
+     * @param listener a thread-safe Listener; must not be null
+     */
+    public static synchronized void addListener(Listener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("listener must not be null.");
+        Listener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[listeners.length] = listener;
+        listeners = next;
+    }
+
+    /**
+     * Removes a Listener added with {@link #addListener(Listener)} or registered as a service.
+     * @param listener the Listener to remove
+     * @return true if it was found and removed
+     */
+    public static synchronized boolean removeListener(Listener listener) {
+        final Listener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                Listener[] next = new Listener[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, next.length - i);
+                listeners = next;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clears every histogram and counter. This doesn't change whether metrics are enabled, or remove listeners.
+     */
+    public static void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0L);
+        }
+        for (int i = 0; i < STAGES.length; i++) {
+            totals.set(i, 0L);
+            maxima.set(i, 0L);
+        }
+        icons.set(0L);
+        nativeBytes.set(0L);
+        heapBytes.set(0L);
+        cacheHits.set(0L);
+        cacheMisses.set(0L);
+    }
+
+    /**
+     * Copies everything recorded so far. Other threads can keep recording while this runs, so the copy may include
+     * part of a stage that finished at the same time, but every number in it is one that was really recorded.
+     * @return a new Snapshot
+     */
+    public static Snapshot snapshot() {
+        final long[] c = new long[counts.length()], t = new long[STAGES.length], m = new long[STAGES.length];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = counts.get(i);
+        }
+        for (int i = 0; i < STAGES.length; i++) {
+            t[i] = totals.get(i);
+            m[i] = maxima.get(i);
+        }
+        return new Snapshot(c, t, m, icons.get(), nativeBytes.get(), heapBytes.get(), cacheHits.get(),
+                cacheMisses.get());
+    }
+
+    /**
+     * Call before a stage, and pass the result to {@link #stop(Stage, long)} after it.
+     * @return the current time in nanoseconds, or {@link #OFF} if metrics are disabled
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : OFF;
+    }
+
+    /**
+     * Records a stage that began when {@link #start()} returned {@code start}, unless that was {@link #OFF}.
+     * @param stage the stage that just finished
+     * @param start what {@link #start()} returned before the stage
+     * @return the current time in nanoseconds, to start the next stage with, or {@link #OFF}
+     */
+    static long stop(Stage stage, long start) {
+        if (start == OFF) return OFF;
+        final long now = System.nanoTime(), nanos = Math.max(now - start, 0L);
+        final int s = stage.ordinal();
+        counts.incrementAndGet(s * BUCKETS + 64 - Long.numberOfLeadingZeros(nanos));
+        totals.addAndGet(s, nanos);
+        long max = maxima.get(s);
+        while (nanos > max && !maxima.compareAndSet(s, max, nanos)) {
+            max = maxima.get(s);
+        }
+        for (Listener listener : listeners) {
+            listener.stageFinished(stage, nanos);
+        }
+        return now;
+    }
+
+    /**
+     * Counts one finished icon, if metrics are enabled.
+     */
+    static void icon() {
+        if (enabled) icons.incrementAndGet();
+    }
+
+    /**
+     * Counts native (off-heap) bytes allocated for pixels, if metrics are enabled.
+     */
+    static void nativeBytes(long bytes) {
+        if (enabled) nativeBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Counts heap bytes allocated for pixels, if metrics are enabled.
+     */
+    static void heapBytes(long bytes) {
+        if (enabled) heapBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Counts one {@link IconCache} lookup, if metrics are enabled.
+     */
+    static void cacheLookup(boolean hit) {
+        if (enabled) (hit ? cacheHits : cacheMisses).incrementAndGet();
+    }
+
+    /**
+     * An unchanging copy of the metrics recorded up to when {@link IconMetrics#snapshot()} was called.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long[] totals;
+        private final long[] maxima;
+        private final long icons;
+        private final long nativeBytes;
+        private final long heapBytes;
+        private final long cacheHits;
+        private final long cacheMisses;
+
+        private Snapshot(long[] counts, long[] totals, long[] maxima, long icons, long nativeBytes, long heapBytes,
+                         long cacheHits, long cacheMisses) {
+            this.counts = counts;
+            this.totals = totals;
+            this.maxima = maxima;
+            this.icons = icons;
+            this.nativeBytes = nativeBytes;
+            this.heapBytes = heapBytes;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+        }
+
+        /**
+         * Gets how many times a stage finished.
+         * @param stage a Stage
+         * @return how many times it was timed
+         */
+        public long getCount(Stage stage) {
+            long sum = 0L;
+            for (int b = 0, i = stage.ordinal() * BUCKETS; b < BUCKETS; b++, i++) {
+                sum += counts[i];
+            }
+            return sum;
+        }
+
+        /**
+         * Gets how many times a stage took a time that falls in one histogram bucket. Bucket {@code b} holds times
+         * from {@code 2 ** (b - 1)} up to {@code 2 ** b - 1} nanoseconds, and bucket 0 holds times of 0.
+         * @param stage a Stage
+         * @param bucket from 0 to {@link #BUCKETS} - 1
+         * @return how many times of that stage fell in that bucket
+         */
+        public long getBucketCount(Stage stage, int bucket) {
+            return counts[stage.ordinal() * BUCKETS + bucket];
+        }
+
+        /**
+         * Gets the total time spent in a stage.
+         * @param stage a Stage
+         * @return the sum of every time recorded for it, in nanoseconds
+         */
+        public long getTotalNanos(Stage stage) {
+            return totals[stage.ordinal()];
+        }
+
+        /**
+         * Gets the longest time a stage took.
+         * @param stage a Stage
+         * @return the longest time recorded for it, in nanoseconds, or 0 if none were
+         */
+        public long getMaxNanos(Stage stage) {
+            return maxima[stage.ordinal()];
+        }
+
+        /**
+         * Gets the average time a stage took.
+         * @param stage a Stage
+         * @return the mean time recorded for it, in nanoseconds, or 0 if none were
+         */
+        public double getMeanNanos(Stage stage) {
+            final long count = getCount(stage);
+            return count == 0L ? 0.0 : totals[stage.ordinal()] / (double) count;
+        }
+
+        /**
+         * Estimates a percentile of the times a stage took, from its histogram. The result is the upper end of the
+         * bucket the percentile falls in (but no more than the longest time), so it can be up to twice the real value.
+         * @param stage a Stage
+         * @param percentile from 0 to 100, such as 50 for the median or 99
+         * @return an upper bound on that percentile, in nanoseconds, or 0 if no times were recorded
+         */
+        public long getPercentileNanos(Stage stage, double percentile) {
+            final long count = getCount(stage);
+            if (count == 0L) return 0L;
+            final long rank = Math.max(1L, (long) Math.ceil(count * Math.min(Math.max(percentile, 0.0), 100.0) / 100.0));
+            long seen = 0L;
+            for (int b = 0, i = stage.ordinal() * BUCKETS; b < BUCKETS; b++, i++) {
+                seen += counts[i];
+                if (seen >= rank)
+                    return b == 0 ? 0L : Math.min(b == 63 ? Long.MAX_VALUE : (1L << b) - 1L, getMaxNanos(stage));
+            }
+            return getMaxNanos(stage);
+        }
+
+        /**
+         * Gets how many icons were finished, by any Iconizer, IconCompositor, or IconCache.
+         * @return the number of icons generated; IconCache hits aren't counted
+         */
+        public long getIconCount() {
+            return icons;
+        }
+
+        /**
+         * Gets how many bytes of native (off-heap) memory were allocated for pixels: new Pixmaps made for results and
+         * for Iconizer's pools. This only counts allocations, not how much is still held.
+         * @return the number of native bytes allocated
+         */
+        public long getNativeBytes() {
+            return nativeBytes;
+        }
+
+        /**
+         * Gets how many bytes of heap memory were allocated for pixels: new int arrays for results and scratch
+         * space, and {@link IndexedIcon}s. Small objects and JDK internals aren't counted.
+         * @return the number of heap bytes allocated for pixels
+         */
+        public long getHeapBytes() {
+            return heapBytes;
+        }
+
+        /**
+         * Gets how many IconCache lookups found their icon already cached.
+         * @return the number of cache hits, across every IconCache
+         */
+        public long getCacheHits() {
+            return cacheHits;
+        }
+
+        /**
+         * Gets how many IconCache lookups had to generate their icon.
+         * @return the number of cache misses, across every IconCache
+         */
+        public long getCacheMisses() {
+            return cacheMisses;
+        }
+
+        /**
+         * Gets the fraction of IconCache lookups that hit.
+         * @return from 0 to 1, or 0 if there were no lookups
+         */
+        public double getCacheHitRate() {
+            final long lookups = cacheHits + cacheMisses;
+            return lookups == 0L ? 0.0 : cacheHits / (double) lookups;
+        }
+
+        /**
+         * Shows the count, mean, median, 99th percentile, and maximum time of every stage that ran, then the counters,
+         * with one line each.
+         * @return a readable summary of this snapshot
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(512);
+            for (Stage stage : STAGES) {
+                final long count = getCount(stage);
+                if (count == 0L) continue;
+                sb.append(stage).append(": ").append(count).append(" times, mean ")
+                        .append(micros((long) getMeanNanos(stage))).append(", p50 ")
+                        .append(micros(getPercentileNanos(stage, 50))).append(", p99 ")
+                        .append(micros(getPercentileNanos(stage, 99))).append(", max ")
+                        .append(micros(getMaxNanos(stage))).append('\n');
+            }
+            sb.append("icons: ").append(icons).append(", native bytes: ").append(nativeBytes)
+                    .append(", heap bytes: ").append(heapBytes).append(", cache hits: ").append(cacheHits)
+                    .append(", cache misses: ").append(cacheMisses);
+            return sb.toString();
+        }
+
+        private static String micros(long nanos) {
+            return nanos / 1000L + "." + (char) ('0' + nanos / 100L % 10L) + " us";
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * The file names of every OpenMoji icon, such as {@code "alien monster.png"}, addressed by the same integer ids that
+ * {@link IconAtlas} uses. Icons are always drawn by id, so the names are only needed to describe an icon to a person,
+ * or to find the original PNG in the {@code src/main/resources/icons/} folder of this repo.
+ * <br>
+ * The names are not stored in code. They are packed at build time by the {@code packIcons} Gradle task into one UTF-8
+ * resource at {@link #PATH}, with an int offset per name, and that is only loaded the first time a name is requested.
+ * Each String is decoded the first time its id is requested, and then kept.
+ * <br>
+ * The resource starts with two big-endian ints: {@link #MAGIC} and the name count. Then there are {@code count + 1}
+ * int offsets, relative to the start of the name data, where name {@code i} spans from offset {@code i} (inclusive) to
+ * offset {@code i + 1} (exclusive). Last is the name data itself, every name in UTF-8, with no separators.
+ */
+public final class IconNames {
+    /**
+     * The classpath location of the packed name table.
+     */
+    public static final String PATH = "icons/names.bin";
+    /**
+     * The first int in the name table; spells "NAME" in ASCII.
+     */
+    public static final int MAGIC = 0x4E414D45;
+    /**
+     * How many icons there are. This is known without loading anything, so the hot path can pick icon ids freely.
+     */
+    public static final int COUNT = 1991;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private IconNames() {
+    }
+
+    /**
+     * Loaded on first use by the class loader, which makes this thread-safe without any locking.
+     */
+    private static final class Table {
+        static final int[] offsets;
+        static final byte[] utf8;
+        static final String[] names = new String[COUNT];
+        static ObjectIntMap<String> ids;
+
+        static {
+            InputStream stream = Gdx.files != null ? Gdx.files.classpath(PATH).read()
+                    : IconNames.class.getClassLoader().getResourceAsStream(PATH);
+            if (stream == null)
+                throw new GdxRuntimeException("Could not find packed icon names at " + PATH);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 14));
+            try {
+                if (in.readInt() != MAGIC)
+                    throw new GdxRuntimeException("Not a packed icon name file: " + PATH);
+                int count = in.readInt();
+                if (count != COUNT)
+                    throw new GdxRuntimeException("Expected " + COUNT + " icon names, but " + PATH + " has " + count);
+                offsets = new int[count + 1];
+                for (int i = 0; i <= count; i++) {
+                    offsets[i] = in.readInt();
+                }
+                utf8 = new byte[offsets[count]];
+                in.readFully(utf8);
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Could not read packed icon names from " + PATH, e);
+            } finally {
+                StreamUtils.closeQuietly(in);
+            }
+        }
+    }
+
+    /**
+     * Gets the file name of the icon with the given id, such as {@code "alien monster.png"}. The PNGs are only
+     * used when building, and are not in the jar; the pixels for this id are in the packed {@link IconAtlas}.
+     * @param id the id of an icon, from 0 inclusive to {@link #COUNT} exclusive
+     * @return the file name of that icon
+     */
+    public static String get(int id) {
+        final String[] names = Table.names;
+        String name = names[id];
+        if (name == null) {
+            final int[] offsets = Table.offsets;
+            names[id] = name = new String(Table.utf8, offsets[id], offsets[id + 1] - offsets[id], UTF_8);
+        }
+        return name;
+    }
+
+    /**
+     * Finds the id of the icon with the given file name, such as {@code "alien monster.png"}. The first call to this
+     * decodes every name, so it is slower than later calls.
+     * @param name the file name of an icon, including the {@code .png} extension
+     * @return the id of that icon, or -1 if no icon has that name
+     */
+    public static synchronized int indexOf(String name) {
+        if (Table.ids == null) {
+            ObjectIntMap<String> ids = new ObjectIntMap<>(COUNT);
+            for (int i = 0; i < COUNT; i++) {
+                ids.put(get(i), i);
+            }
+            Table.ids = ids;
+        }
+        return Table.ids.get(name, -1);
+    }
+}
@@ -0,0 +1,409 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes icons as PNG files, much faster than {@link com.badlogic.gdx.graphics.PixmapIO.PNG} at high compression, and
+ * usually smaller too. Generated icons are mostly large flat areas of a few colors, so if an icon has 256 colors or
+ * fewer, which most small icons do, this writes it as a palette-indexed PNG, with one byte per pixel and the alpha of
+ * each color in a tRNS chunk. Otherwise, it writes an RGBA PNG, choosing the PNG filter for each row that should
+ * compress best. Either way, the PNG decodes to exactly the same pixels.
+ * <br>
+ * The {@link Deflater} and every buffer are kept and reused between calls, so writing many icons in a row allocates
+ * almost nothing. An IconPng isn't thread-safe, but IconPngs don't share anything, so to write many icons at once,
+ * give each thread its own IconPng. Call {@link #dispose()} when done with it, to release the Deflater's native memory.
+ * <br>
+ * Rows are written top to bottom, as they are in the Pixmap, so unlike PixmapIO.PNG, nothing is flipped.
+ */
+public final class IconPng implements Disposable {
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    private static final int IHDR = 0x49484452, PLTE = 0x504C5445, TRNS = 0x74524E53, IDAT = 0x49444154,
+            IEND = 0x49454E44;
+    private static final byte COLOR_INDEXED = 3, COLOR_RGBA = 6;
+    private static final byte NONE = 0, SUB = 1, UP = 2, AVERAGE = 3, PAETH = 4;
+    /**
+     * Size of the hash table used to find the palette; a power of two, and at least twice the most colors a palette
+     * can hold, so probes stay short.
+     */
+    private static final int TABLE_SIZE = 1024;
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final int[] keys = new int[TABLE_SIZE];
+    /**
+     * Palette index plus one for each key in the table, or 0 for an empty slot.
+     */
+    private final short[] slots = new short[TABLE_SIZE];
+    private final int[] palette = new int[256];
+    private int paletteSize;
+    private boolean indexed;
+    private int[] pixels = new int[0];
+    private byte[] raw = new byte[0];
+    private byte[] rows = new byte[0];
+    private byte[] out = new byte[1024];
+    private int length;
+    private int chunkStart;
+
+    /**
+     * Creates an IconPng with the default compression level, which is a good balance of speed and size for icons.
+     */
+    public IconPng() {
+        deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Sets the deflate compression level, from 0 (fastest, no compression) to 9 (slowest, smallest output). The
+     * default is {@link Deflater#DEFAULT_COMPRESSION}, which is level 6.
+     * @param level the deflate compression level
+     */
+    public void setCompression(int level) {
+        deflater.setLevel(level);
+    }
+
+    /**
+     * Checks whether the last PNG this wrote was palette-indexed; if not, it was RGBA.
+     * @return true if the last PNG written used a palette
+     */
+    public boolean wasIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Encodes the given Pixmap as a PNG, returning a new byte array holding the whole file.
+     * @param pixmap the Pixmap to encode; this should usually be RGBA8888
+     * @return a new byte array holding a PNG file
+     */
+    public byte[] encode(Pixmap pixmap) {
+        build(pixelsOf(pixmap), pixmap.getWidth(), pixmap.getHeight());
+        return Arrays.copyOf(out, length);
+    }
+
+    /**
+     * Encodes RGBA8888 pixels in row-major order, such as those {@link IconCompositor} produces, as a PNG, returning a
+     * new byte array holding the whole file.
+     * @param rgba RGBA8888 pixels, with length at least {@code width * height}
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @return a new byte array holding a PNG file
+     */
+    public byte[] encode(int[] rgba, int width, int height) {
+        if (rgba.length < width * height)
+            throw new IllegalArgumentException("rgba must have length at least width * height.");
+        build(rgba, width, height);
+        return Arrays.copyOf(out, length);
+    }
+
+    /**
+     * Writes the given Pixmap as a PNG to the given file, overwriting it.
+     * @param file the file to write to
+     * @param pixmap the Pixmap to encode; this should usually be RGBA8888
+     * @throws IOException if the file can't be written
+     */
+    public void write(FileHandle file, Pixmap pixmap) throws IOException {
+        OutputStream output = file.write(false);
+        try {
+            write(output, pixmap);
+        } finally {
+            StreamUtils.closeQuietly(output);
+        }
+    }
+
+    /**
+     * Writes the given Pixmap as a PNG to the given stream, without closing the stream.
+     * @param output the stream to write to
+     * @param pixmap the Pixmap to encode; this should usually be RGBA8888
+     * @throws IOException if the stream can't be written to
+     */
+    public void write(OutputStream output, Pixmap pixmap) throws IOException {
+        build(pixelsOf(pixmap), pixmap.getWidth(), pixmap.getHeight());
+        output.write(out, 0, length);
+        output.flush();
+    }
+
+    /**
+     * Writes RGBA8888 pixels in row-major order, such as those {@link IconCompositor} produces, as a PNG to the given
+     * stream, without closing the stream.
+     * @param output the stream to write to
+     * @param rgba RGBA8888 pixels, with length at least {@code width * height}
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @throws IOException if the stream can't be written to
+     */
+    public void write(OutputStream output, int[] rgba, int width, int height) throws IOException {
+        if (rgba.length < width * height)
+            throw new IllegalArgumentException("rgba must have length at least width * height.");
+        build(rgba, width, height);
+        output.write(out, 0, length);
+        output.flush();
+    }
+
+    /**
+     * Copies the pixels of a Pixmap into the reusable int array, as RGBA8888.
+     */
+    private int[] pixelsOf(Pixmap pixmap) {
+        final int width = pixmap.getWidth(), height = pixmap.getHeight(), n = width * height;
+        if (pixels.length < n) pixels = new int[n];
+        if (pixmap.getFormat() == Pixmap.Format.RGBA8888) {
+            final ByteBuffer buffer = pixmap.getPixels();
+            final ByteOrder order = buffer.order();
+            final int position = buffer.position();
+            buffer.order(ByteOrder.BIG_ENDIAN).position(0);
+            buffer.asIntBuffer().get(pixels, 0, n);
+            buffer.order(order).position(position);
+        } else {
+            for (int y = 0, i = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    pixels[i++] = pixmap.getPixel(x, y);
+                }
+            }
+        }
+        return pixels;
+    }
+
+    private void build(int[] rgba, int width, int height) {
+        final long start = IconMetrics.start();
+        length = 0;
+        ensure(64);
+        System.arraycopy(SIGNATURE, 0, out, 0, SIGNATURE.length);
+        length = SIGNATURE.length;
+        indexed = findPalette(rgba, width * height);
+
+        begin(IHDR);
+        writeInt(width);
+        writeInt(height);
+        writeByte(8);
+        writeByte(indexed ? COLOR_INDEXED : COLOR_RGBA);
+        writeByte(0);
+        writeByte(0);
+        writeByte(0);
+        end();
+
+        int rawLength;
+        if (indexed) {
+            begin(PLTE);
+            ensure(paletteSize * 3);
+            for (int i = 0; i < paletteSize; i++) {
+                final int c = palette[i];
+                out[length++] = (byte) (c >>> 24);
+                out[length++] = (byte) (c >>> 16);
+                out[length++] = (byte) (c >>> 8);
+            }
+            end();
+            // Alphas after the last one below 255 can be left out.
+            int alphas = paletteSize;
+            while (alphas > 0 && (palette[alphas - 1] & 255) == 255) alphas--;
+            if (alphas > 0) {
+                begin(TRNS);
+                ensure(alphas);
+                for (int i = 0; i < alphas; i++) {
+                    out[length++] = (byte) palette[i];
+                }
+                end();
+            }
+            rawLength = indexRows(rgba, width, height);
+        } else {
+            rawLength = filterRows(rgba, width, height);
+        }
+
+        begin(IDAT);
+        deflater.reset();
+        deflater.setInput(raw, 0, rawLength);
+        deflater.finish();
+        while (!deflater.finished()) {
+            ensure(Math.max(1024, rawLength >>> 2));
+            length += deflater.deflate(out, length, out.length - length);
+        }
+        end();
+
+        begin(IEND);
+        end();
+        IconMetrics.stop(IconMetrics.Stage.ENCODE, start);
+    }
+
+    /**
+     * Finds up to 256 distinct colors in rgba, in the order they first appear. Returns false if there are more.
+     */
+    private boolean findPalette(int[] rgba, int n) {
+        Arrays.fill(slots, (short) 0);
+        paletteSize = 0;
+        int last = 0, lastSlot = -1;
+        for (int i = 0; i < n; i++) {
+            final int c = rgba[i];
+            // Flat areas repeat the same color many times in a row.
+            if (c == last && lastSlot >= 0) continue;
+            int h = c * 0x9E3779B9 >>> 22;
+            while (slots[h] != 0 && keys[h] != c) h = h + 1 & TABLE_SIZE - 1;
+            if (slots[h] == 0) {
+                if (paletteSize == 256) return false;
+                keys[h] = c;
+                palette[paletteSize] = c;
+                slots[h] = (short) ++paletteSize;
+            }
+            last = c;
+            lastSlot = h;
+        }
+        return true;
+    }
+
+    /**
+     * Writes each row as filter type None followed by one palette index per pixel; palette images don't gain
+     * anything from the other filters.
+     */
+    private int indexRows(int[] rgba, int width, int height) {
+        final int rawLength = (width + 1) * height;
+        if (raw.length < rawLength) raw = new byte[rawLength];
+        int last = 0;
+        byte index = 0;
+        boolean started = false;
+        for (int y = 0, i = 0, r = 0; y < height; y++) {
+            raw[r++] = NONE;
+            for (int x = 0; x < width; x++) {
+                final int c = rgba[i++];
+                if (c != last || !started) {
+                    int h = c * 0x9E3779B9 >>> 22;
+                    while (keys[h] != c) h = h + 1 & TABLE_SIZE - 1;
+                    index = (byte) (slots[h] - 1);
+                    last = c;
+                    started = true;
+                }
+                raw[r++] = index;
+            }
+        }
+        return rawLength;
+    }
+
+    /**
+     * Writes each RGBA row with whichever filter gives the smallest sum of absolute byte values, which is the usual
+     * guess at what will compress best.
+     */
+    private int filterRows(int[] rgba, int width, int height) {
+        final int stride = width * 4, rawLength = (stride + 1) * height;
+        if (raw.length < rawLength) raw = new byte[rawLength];
+        if (rows.length < stride * 2) rows = new byte[stride * 2];
+        // The unfiltered current row is at 0 in rows, and the previous one is at stride; the row before the first
+        // is all zeros, as PNG requires.
+        Arrays.fill(rows, stride, stride * 2, (byte) 0);
+        for (int y = 0, r = 0; y < height; y++, r += stride + 1) {
+            for (int x = 0, i = y * width, p = 0; x < width; x++, i++) {
+                final int c = rgba[i];
+                rows[p++] = (byte) (c >>> 24);
+                rows[p++] = (byte) (c >>> 16);
+                rows[p++] = (byte) (c >>> 8);
+                rows[p++] = (byte) c;
+            }
+            filterRow(stride, r);
+            System.arraycopy(rows, 0, rows, stride, stride);
+        }
+        return rawLength;
+    }
+
+    /**
+     * Filters the row at 0 in rows, using the row at stride as the previous row, and writes it to raw at r.
+     */
+    private void filterRow(int stride, int r) {
+        final byte[] rows = this.rows;
+        long none = 0, sub = 0, up = 0, average = 0, paeth = 0;
+        for (int i = 0; i < stride; i++) {
+            final int x = rows[i] & 255, a = i < 4 ? 0 : rows[i - 4] & 255, b = rows[stride + i] & 255,
+                    c = i < 4 ? 0 : rows[stride + i - 4] & 255;
+            none += cost(x);
+            sub += cost(x - a);
+            up += cost(x - b);
+            average += cost(x - (a + b >>> 1));
+            paeth += cost(x - paeth(a, b, c));
+        }
+        byte filter = NONE;
+        long best = none;
+        if (sub < best) { best = sub; filter = SUB; }
+        if (up < best) { best = up; filter = UP; }
+        if (average < best) { best = average; filter = AVERAGE; }
+        if (paeth < best) filter = PAETH;
+        raw[r++] = filter;
+        for (int i = 0; i < stride; i++) {
+            final int x = rows[i] & 255, a = i < 4 ? 0 : rows[i - 4] & 255, b = rows[stride + i] & 255,
+                    c = i < 4 ? 0 : rows[stride + i - 4] & 255;
+            final int predicted;
+            switch (filter) {
+                case SUB: predicted = a; break;
+                case UP: predicted = b; break;
+                case AVERAGE: predicted = a + b >>> 1; break;
+                case PAETH: predicted = paeth(a, b, c); break;
+                default: predicted = 0;
+            }
+            raw[r++] = (byte) (x - predicted);
+        }
+    }
+
+    /**
+     * How far a filtered byte is from 0, treating it as signed.
+     */
+    private static int cost(int delta) {
+        delta &= 255;
+        return delta < 128 ? delta : 256 - delta;
+    }
+
+    private static int paeth(int a, int b, int c) {
+        final int p = a + b - c;
+        final int pa = Math.abs(p - a), pb = Math.abs(p - b), pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) return a;
+        if (pb <= pc) return b;
+        return c;
+    }
+
+    private void begin(int type) {
+        ensure(8);
+        chunkStart = length;
+        length += 4;
+        writeInt(type);
+    }
+
+    /**
+     * Fills in the length of the chunk started last, and appends its CRC.
+     */
+    private void end() {
+        final int size = length - chunkStart - 8;
+        out[chunkStart] = (byte) (size >>> 24);
+        out[chunkStart + 1] = (byte) (size >>> 16);
+        out[chunkStart + 2] = (byte) (size >>> 8);
+        out[chunkStart + 3] = (byte) size;
+        crc.reset();
+        crc.update(out, chunkStart + 4, size + 4);
+        writeInt((int) crc.getValue());
+    }
+
+    private void writeInt(int v) {
+        ensure(4);
+        out[length++] = (byte) (v >>> 24);
+        out[length++] = (byte) (v >>> 16);
+        out[length++] = (byte) (v >>> 8);
+        out[length++] = (byte) v;
+    }
+
+    private void writeByte(int v) {
+        ensure(1);
+        out[length++] = (byte) v;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > out.length) out = Arrays.copyOf(out, Math.max(out.length << 1, length + extra));
+    }
+
+    /**
+     * Releases the Deflater's native memory. This IconPng can't be used after this.
+     */
+    @Override
+    public void dispose() {
+        deflater.end();
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.tommyettinger.iconizer;
+
+/**
+ * Everything that decides what an icon looks like, without any pixels: which two icons are drawn, and the four colors
+ * used. Two seeds with equal IconSpecs produce exactly the same icon at every size, so comparing IconSpecs is a cheap,
+ * exact way to find duplicate icons. Get one with {@link Iconizer#describe(long)}, which only does a little math on
+ * the seed; to deduplicate many seeds without creating any objects, use a {@link SpecIndex}.
+ */
+public final class IconSpec {
+    /**
+     * The id of the icon whose left half is drawn; see {@link IconNames}.
+     */
+    public final int leftIcon;
+    /**
+     * The id of the icon whose right half is drawn; see {@link IconNames}.
+     */
+    public final int rightIcon;
+    /**
+     * The RGBA8888 color that fills the background.
+     */
+    public final int background;
+    /**
+     * The RGBA8888 color of the circle in the middle.
+     */
+    public final int circle;
+    /**
+     * The RGBA8888 tint of the left half; its alpha is always 0, because the icon's own alpha is used instead.
+     */
+    public final int leftTint;
+    /**
+     * The RGBA8888 tint of the right half; its alpha is always 0, because the icon's own alpha is used instead.
+     */
+    public final int rightTint;
+
+    /**
+     * Creates an IconSpec from its parts. Usually you would get one from {@link Iconizer#describe(long)} instead.
+     * @param leftIcon the id of the icon whose left half is drawn
+     * @param rightIcon the id of the icon whose right half is drawn
+     * @param background the RGBA8888 background color
+     * @param circle the RGBA8888 circle color
+     * @param leftTint the RGBA8888 tint of the left half, with 0 alpha
+     * @param rightTint the RGBA8888 tint of the right half, with 0 alpha
+     */
+    public IconSpec(int leftIcon, int rightIcon, int background, int circle, int leftTint, int rightTint) {
+        this.leftIcon = leftIcon;
+        this.rightIcon = rightIcon;
+        this.background = background;
+        this.circle = circle;
+        this.leftTint = leftTint;
+        this.rightTint = rightTint;
+    }
+
+    /**
+     * Gets the file name of the icon whose left half is drawn, such as {@code "alien monster.png"}.
+     * @return the file name of the left icon
+     */
+    public String leftName() {
+        return IconNames.get(leftIcon);
+    }
+
+    /**
+     * Gets the file name of the icon whose right half is drawn, such as {@code "alien monster.png"}.
+     * @return the file name of the right icon
+     */
+    public String rightName() {
+        return IconNames.get(rightIcon);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IconSpec)) return false;
+        IconSpec s = (IconSpec) o;
+        return leftIcon == s.leftIcon && rightIcon == s.rightIcon && background == s.background && circle == s.circle
+                && leftTint == s.leftTint && rightTint == s.rightTint;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = leftIcon;
+        h = h * 31 + rightIcon;
+        h = h * 31 + background;
+        h = h * 31 + circle;
+        h = h * 31 + leftTint;
+        return h * 31 + rightTint;
+    }
+
+    @Override
+    public String toString() {
+        return "IconSpec{left=" + leftName() + ", right=" + rightName()
+                + ", background=" + hex(background) + ", circle=" + hex(circle)
+                + ", leftTint=" + hex(leftTint) + ", rightTint=" + hex(rightTint) + "}";
+    }
+
+    private static String hex(int rgba) {
+        String s = Integer.toHexString(rgba);
+        return "00000000".substring(s.length()) + s;
+    }
+}
@@ -0,0 +1,258 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes very large numbers of generated icons to disk, with memory use that stays bounded no matter how many seeds
+ * are given. Icons are generated on the calling thread with an {@link IconCompositor}, while encoding and writing
+ * happen on a separate writer thread, so the two overlap. The threads hand off batches of icons through a small,
+ * fixed set of reusable buffers; when the writer falls behind, generation waits for a buffer to be freed.
+ * <br>
+ * There are two output formats. {@link #writeRaw(Iterator, int, int, WritableByteChannel)} appends length-prefixed
+ * records of raw RGBA8888 pixels to a channel, such as a {@link java.nio.channels.FileChannel}, and doesn't need
+ * native code at all. {@link #writeSheets(Iterator, int, int, int, int, FileHandle, String)} tiles icons into PNG
+ * sprite sheets; this uses a Pixmap and {@link PixmapIO.PNG}, so libGDX's native libraries must be loaded.
+ */
+public final class IconStreamWriter {
+    /**
+     * How many icons go in each batch for {@link #writeRaw(Iterator, int, int, WritableByteChannel)}.
+     */
+    public static final int RAW_BATCH = 64;
+    /**
+     * The number of bytes in each raw record's header, after its length prefix: the seed (8 bytes), then the width
+     * and height (4 bytes each).
+     */
+    public static final int RAW_HEADER = 16;
+
+    private final IconCompositor compositor;
+    private final int depth;
+
+    /**
+     * Creates an IconStreamWriter using a new {@link IconCompositor} with the shared {@link IconAtlas}, that keeps at
+     * most 4 batches of icons in memory at once.
+     */
+    public IconStreamWriter() {
+        this(new IconCompositor(), 4);
+    }
+
+    /**
+     * Creates an IconStreamWriter using the given IconCompositor, that keeps at most {@code depth} batches of icons in
+     * memory at once.
+     * @param compositor used to generate every icon
+     * @param depth how many batches can be in memory at once; must be at least 2 so generation and writing overlap
+     */
+    public IconStreamWriter(IconCompositor compositor, int depth) {
+        if (depth < 2)
+            throw new IllegalArgumentException("depth must be at least 2.");
+        this.compositor = compositor;
+        this.depth = depth;
+    }
+
+    /**
+     * Generates an icon for each seed and writes it to {@code out} as one record. Each record is a big-endian int
+     * length (the number of bytes in the rest of the record), then the big-endian long seed, then the big-endian int
+     * width and height, then {@code width * height * 4} bytes of RGBA8888 pixel data in row-major order. This does not
+     * close {@code out}.
+     * @param seeds the seeds to generate icons for; iterated exactly once, on the calling thread
+     * @param width the width in pixels of each icon
+     * @param height the height in pixels of each icon
+     * @param out a channel to append records to, such as a FileChannel
+     * @return how many icons were written
+     * @throws IOException if writing to {@code out} fails
+     */
+    public long writeRaw(Iterator<Long> seeds, final int width, final int height, final WritableByteChannel out)
+            throws IOException {
+        final int pixels = width * height;
+        final ByteBuffer record = ByteBuffer.allocateDirect(4 + RAW_HEADER + pixels * 4).order(ByteOrder.BIG_ENDIAN);
+        return run(seeds, width, height, RAW_BATCH, new Sink() {
+            @Override
+            public void write(Batch batch) throws IOException {
+                for (int i = 0, p = 0; i < batch.count; i++) {
+                    record.clear();
+                    record.putInt(RAW_HEADER + pixels * 4).putLong(batch.seeds[i]).putInt(width).putInt(height);
+                    for (int e = p + pixels; p < e; p++) {
+                        record.putInt(batch.pixels[p]);
+                    }
+                    record.flip();
+                    while (record.hasRemaining()) {
+                        out.write(record);
+                    }
+                }
+            }
+
+            @Override
+            public void finish() {
+            }
+        });
+    }
+
+    /**
+     * Generates an icon for each seed and tiles them into PNG sprite sheets, each {@code columns} icons wide and
+     * {@code rows} icons tall, written to {@code directory} as {@code prefix + sheetIndex + ".png"}. Icons fill each
+     * sheet left to right, then top to bottom, in the same order as seeds; if the last sheet isn't full, its unused
+     * cells are transparent. This needs libGDX's native libraries to be loaded, because it encodes with
+     * {@link PixmapIO.PNG}.
+     * @param seeds the seeds to generate icons for; iterated exactly once, on the calling thread
+     * @param width the width in pixels of each icon
+     * @param height the height in pixels of each icon
+     * @param columns how many icons go across each sheet
+     * @param rows how many icons go down each sheet
+     * @param directory the directory to write sheets into
+     * @param prefix the start of each sheet's file name
+     * @return how many icons were written
+     * @throws IOException if a sheet can't be encoded or written
+     */
+    public long writeSheets(Iterator<Long> seeds, final int width, final int height, final int columns, final int rows,
+                            final FileHandle directory, final String prefix) throws IOException {
+        return run(seeds, width, height, columns * rows, new Sink() {
+            private final Pixmap sheet = new Pixmap(width * columns, height * rows, Pixmap.Format.RGBA8888);
+            private final PixmapIO.PNG png = new PixmapIO.PNG(width * columns * height * rows * 4);
+            private int index = 0;
+
+            {
+                sheet.setBlending(Pixmap.Blending.None);
+                png.setFlipY(false);
+            }
+
+            @Override
+            public void write(Batch batch) throws IOException {
+                final ByteBuffer px = sheet.getPixels();
+                final boolean big = px.order() == ByteOrder.BIG_ENDIAN;
+                final int stride = width * columns;
+                for (int i = 0, p = 0; i < columns * rows; i++) {
+                    final int left = (i % columns) * width, top = (i / columns) * height;
+                    for (int y = 0; y < height; y++) {
+                        for (int x = 0, b = ((top + y) * stride + left) * 4; x < width; x++, b += 4) {
+                            final int c = i < batch.count ? batch.pixels[p++] : 0;
+                            px.putInt(b, big ? c : Integer.reverseBytes(c));
+                        }
+                    }
+                }
+                png.write(directory.child(prefix + index++ + ".png"), sheet);
+            }
+
+            @Override
+            public void finish() {
+                sheet.dispose();
+                png.dispose();
+            }
+        });
+    }
+
+    private interface Sink {
+        void write(Batch batch) throws IOException;
+
+        void finish();
+    }
+
+    private static final class Batch {
+        final long[] seeds;
+        final int[] pixels;
+        int count;
+
+        Batch(int icons, int pixelsPerIcon) {
+            seeds = new long[icons];
+            pixels = new int[icons * pixelsPerIcon];
+        }
+    }
+
+    /**
+     * Runs the generation/writing pipeline. Batches cycle between the free queue (filled here) and the full queue
+     * (drained by the writer thread); a batch with count 0 tells the writer to stop. If the writer fails, it keeps
+     * recycling batches so this thread never blocks forever, and the failure is rethrown here. If the seeds or the
+     * generation throw instead, the writer is still told to stop and is joined before that is rethrown, so the sink is
+     * always finished before this returns or throws.
+     */
+    private long run(Iterator<Long> seeds, final int width, final int height, int perBatch, final Sink sink)
+            throws IOException {
+        final ArrayBlockingQueue<Batch> free = new ArrayBlockingQueue<>(depth);
+        final ArrayBlockingQueue<Batch> full = new ArrayBlockingQueue<>(depth + 1);
+        for (int i = 0; i < depth; i++) {
+            free.add(new Batch(perBatch, width * height));
+        }
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        Batch batch = full.take();
+                        if (batch.count == 0) break;
+                        if (failure.get() == null) {
+                            try {
+                                sink.write(batch);
+                            } catch (Throwable t) {
+                                failure.compareAndSet(null, t);
+                            }
+                        }
+                        free.put(batch);
+                    }
+                } catch (InterruptedException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    sink.finish();
+                }
+            }
+        }, "IconStreamWriter");
+        writer.setDaemon(true);
+        writer.start();
+
+        long written = 0L;
+        try {
+            while (seeds.hasNext() && failure.get() == null) {
+                Batch batch = free.take();
+                batch.count = 0;
+                for (int p = 0; batch.count < perBatch && seeds.hasNext(); p += width * height) {
+                    long seed = seeds.next();
+                    compositor.generateInto(batch.pixels, p, width, height, seed);
+                    batch.seeds[batch.count++] = seed;
+                }
+                full.put(batch);
+                written += batch.count;
+            }
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Interrupted while writing icons", e);
+        } finally {
+            // Only depth batches ever exist, and full has room for one more, so the end marker never has to wait.
+            full.add(new Batch(0, 0));
+            join(writer);
+        }
+        final Throwable t = failure.get();
+        if (t instanceof IOException)
+            throw (IOException) t;
+        if (t != null)
+            throw new GdxRuntimeException("Failed to write icons", t);
+        return written;
+    }
+
+    /**
+     * Waits for the writer thread to finish, even if this thread is interrupted, keeping this thread's interrupted
+     * status as it was.
+     */
+    private static void join(Thread writer) {
+        boolean interrupted = Thread.interrupted();
+        while (true) {
+            try {
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+}
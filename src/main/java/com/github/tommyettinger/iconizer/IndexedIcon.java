@@ -0,0 +1,298 @@
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * An icon stored as a palette of its distinct RGBA8888 colors plus one byte per pixel, instead of four bytes per
+ * pixel, so it takes a little over a quarter of the memory of a Pixmap or int array. Icons are mostly large flat
+ * areas of a few colors, but the scaled icon halves are smoothly blended over the background and the circle, so larger
+ * icons have several hundred colors, most of which are only used by a few pixels along edges. The palette is sorted so
+ * the most common colors come first; the 255 most common are indexed directly by a pixel's byte, and the byte 255
+ * marks the rare pixels whose palette index is stored separately, in two bytes. Those are usually 1% to 8% of the
+ * pixels. This is lossless: {@link #toRgba()} and {@link #toPixmap()} give back exactly the pixels this was made from.
+ * <br>
+ * Colors that are used equally often are in the order they first appear, reading rows from the top, so two
+ * IndexedIcons with the same pixels have the same palette and indices, and {@link #equals(Object)} compares them
+ * directly. That makes these usable as keys when deduplicating many icons held in memory.
+ * <br>
+ * Get one with {@link IconCompositor#generateIndexed(int, int, long)}, or from existing pixels with
+ * {@link #of(int[], int, int)} or {@link #of(Pixmap)}. IndexedIcons are immutable.
+ */
+public final class IndexedIcon {
+    /**
+     * The byte value that marks a pixel whose palette index is stored in {@link #extra}.
+     */
+    private static final int ESCAPE = 255;
+
+    private final int width;
+    private final int height;
+    private final int[] palette;
+    /**
+     * One byte per pixel: the palette index, or {@link #ESCAPE}.
+     */
+    private final byte[] bytes;
+    /**
+     * The palette index of each escaped pixel, in order, or null if there are none.
+     */
+    private final char[] extra;
+    /**
+     * How many pixels are escaped before each row starts, or null if there are none.
+     */
+    private final int[] rowStarts;
+    private int hash;
+
+    private IndexedIcon(int width, int height, int[] palette, byte[] bytes, char[] extra, int[] rowStarts) {
+        this.width = width;
+        this.height = height;
+        this.palette = palette;
+        this.bytes = bytes;
+        this.extra = extra;
+        this.rowStarts = rowStarts;
+    }
+
+    /**
+     * Creates an IndexedIcon holding a copy of the given RGBA8888 pixels, in row-major order. There can be at most
+     * 65536 distinct colors, which any icon is far below.
+     * @param rgba RGBA8888 pixels, with length at least {@code width * height}; not modified
+     * @param width the width of the icon in pixels
+     * @param height the height of the icon in pixels
+     * @return a new IndexedIcon with the same pixels
+     * @throws IllegalArgumentException if rgba is too short, or has more than 65536 colors
+     */
+    public static IndexedIcon of(int[] rgba, int width, int height) {
+        return of(rgba, 0, width, height);
+    }
+
+    /**
+     * Creates an IndexedIcon holding a copy of the pixels of the given Pixmap.
+     * @param pixmap a Pixmap, usually RGBA8888, such as one from {@link Iconizer#generate(int, int, long)}
+     * @return a new IndexedIcon with the same pixels
+     */
+    public static IndexedIcon of(Pixmap pixmap) {
+        final int width = pixmap.getWidth(), height = pixmap.getHeight();
+        final int[] rgba = new int[width * height];
+        if (pixmap.getFormat() == Pixmap.Format.RGBA8888) {
+            final ByteBuffer buffer = pixmap.getPixels();
+            final ByteOrder order = buffer.order();
+            final int position = buffer.position();
+            buffer.order(ByteOrder.BIG_ENDIAN).position(0);
+            buffer.asIntBuffer().get(rgba);
+            buffer.order(order).position(position);
+        } else {
+            for (int y = 0, i = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    rgba[i++] = pixmap.getPixel(x, y);
+                }
+            }
+        }
+        return of(rgba, 0, width, height);
+    }
+
+    static IndexedIcon of(int[] rgba, int offset, int width, int height) {
+        final int n = width * height;
+        if (offset < 0 || rgba.length - offset < n)
+            throw new IllegalArgumentException("rgba must have length at least offset + width * height.");
+        // First, count how often each color is used, in the order colors first appear.
+        final IntIntMap slots = new IntIntMap(256);
+        int[] colors = new int[256], counts = new int[256];
+        int size = 0;
+        for (int i = 0; i < n; ) {
+            final int c = rgba[offset + i];
+            int run = i + 1;
+            // Flat areas repeat the same color many times in a row.
+            while (run < n && rgba[offset + run] == c) run++;
+            int slot = slots.get(c, -1);
+            if (slot < 0) {
+                if (size == 65536)
+                    throw new IllegalArgumentException("An IndexedIcon can have at most 65536 colors.");
+                if (size == colors.length) {
+                    colors = Arrays.copyOf(colors, size << 1);
+                    counts = Arrays.copyOf(counts, size << 1);
+                }
+                colors[size] = c;
+                slots.put(c, slot = size++);
+            }
+            counts[slot] += run - i;
+            i = run;
+        }
+        // Then sort the palette so the most common colors come first, breaking ties by first appearance.
+        final long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (long) (n - counts[i]) << 32 | i;
+        }
+        Arrays.sort(order);
+        final int[] palette = new int[size];
+        for (int i = 0; i < size; i++) {
+            final int slot = (int) order[i];
+            palette[i] = colors[slot];
+            slots.put(colors[slot], i);
+        }
+        // Last, write one byte per pixel, and escape the pixels whose colors are too rare to get a byte.
+        final byte[] bytes = new byte[n];
+        int escaped = 0;
+        for (int i = ESCAPE; i < size; i++) {
+            escaped += counts[(int) order[i]];
+        }
+        final char[] extra = escaped == 0 ? null : new char[escaped];
+        final int[] rowStarts = escaped == 0 ? null : new int[height];
+        for (int y = 0, i = 0, e = 0, last = 0, index = -1; y < height; y++) {
+            if (rowStarts != null) rowStarts[y] = e;
+            for (int x = 0; x < width; x++, i++) {
+                final int c = rgba[offset + i];
+                if (c != last || index < 0) {
+                    index = slots.get(c, 0);
+                    last = c;
+                }
+                if (index < ESCAPE) {
+                    bytes[i] = (byte) index;
+                } else {
+                    bytes[i] = (byte) ESCAPE;
+                    extra[e++] = (char) index;
+                }
+            }
+        }
+        return new IndexedIcon(width, height, palette, bytes, extra, rowStarts);
+    }
+
+    /**
+     * @return the width of this icon in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height of this icon in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets how many distinct colors this icon has.
+     * @return the number of colors in the palette
+     */
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    /**
+     * Gets a color from the palette.
+     * @param index a palette index, from 0 to {@code getPaletteSize() - 1}
+     * @return the RGBA8888 color at that index
+     */
+    public int getPaletteColor(int index) {
+        return palette[index];
+    }
+
+    /**
+     * Gets how many pixels have colors too rare to be indexed by their byte, and so need two more bytes each.
+     * @return how many pixels are escaped
+     */
+    public int getEscapedCount() {
+        return extra == null ? 0 : extra.length;
+    }
+
+    /**
+     * Gets the palette index of the pixel at x, y, with 0, 0 in the upper left.
+     * @param x the x position, from 0 to {@code getWidth() - 1}
+     * @param y the y position, from 0 to {@code getHeight() - 1}
+     * @return the palette index of that pixel
+     */
+    public int getIndex(int x, int y) {
+        final int row = y * width, i = row + x;
+        final int b = bytes[i] & 255;
+        if (b != ESCAPE) return b;
+        int e = rowStarts[y];
+        for (int j = row; j < i; j++) {
+            if ((bytes[j] & 255) == ESCAPE) e++;
+        }
+        return extra[e];
+    }
+
+    /**
+     * Gets the RGBA8888 color of the pixel at x, y, with 0, 0 in the upper left.
+     * @param x the x position, from 0 to {@code getWidth() - 1}
+     * @param y the y position, from 0 to {@code getHeight() - 1}
+     * @return the RGBA8888 color of that pixel
+     */
+    public int getPixel(int x, int y) {
+        return palette[getIndex(x, y)];
+    }
+
+    /**
+     * Gets roughly how many bytes of memory the pixel data of this icon uses: the indices and the palette.
+     * @return the size in bytes of the indices and palette
+     */
+    public int getMemoryBytes() {
+        return bytes.length + palette.length * 4 + (extra == null ? 0 : extra.length * 2 + rowStarts.length * 4);
+    }
+
+    /**
+     * Converts this back to RGBA8888 pixels, in a new int array in row-major order.
+     * @return a new int array with length {@code width * height}
+     */
+    public int[] toRgba() {
+        return toRgba(new int[width * height], 0);
+    }
+
+    /**
+     * Converts this back to RGBA8888 pixels, writing them into dst in row-major order, starting at offset. This can
+     * be used to pack many icons into one array.
+     * @param dst an int array with length at least {@code offset + width * height}
+     * @param offset the first index in dst to write to
+     * @return dst, after editing it
+     */
+    public int[] toRgba(int[] dst, int offset) {
+        final int n = width * height;
+        if (offset < 0 || dst.length - offset < n)
+            throw new IllegalArgumentException("dst must have length at least offset + width * height.");
+        for (int i = 0, e = 0; i < n; i++) {
+            final int b = bytes[i] & 255;
+            dst[offset + i] = palette[b == ESCAPE ? extra[e++] : b];
+        }
+        return dst;
+    }
+
+    /**
+     * Converts this back to a new RGBA8888 Pixmap, which the caller must dispose.
+     * @return a new Pixmap with the same pixels as this icon
+     */
+    public Pixmap toPixmap() {
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        final ByteBuffer buffer = pixmap.getPixels();
+        final ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN).position(0);
+        buffer.asIntBuffer().put(toRgba());
+        buffer.order(order).position(0);
+        return pixmap;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IndexedIcon)) return false;
+        IndexedIcon other = (IndexedIcon) o;
+        return width == other.width && height == other.height && hashCode() == other.hashCode()
+                && Arrays.equals(palette, other.palette)
+                && Arrays.equals(bytes, other.bytes) && Arrays.equals(extra, other.extra);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = width * 31 + height;
+            h = h * 31 + Arrays.hashCode(palette);
+            h = h * 31 + Arrays.hashCode(bytes);
+            h = h * 31 + Arrays.hashCode(extra);
+            hash = h;
+        }
+        return h;
+    }
+}
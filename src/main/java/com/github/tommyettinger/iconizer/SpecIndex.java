@@ -0,0 +1,140 @@
+package com.github.tommyettinger.iconizer;
+
+import java.util.Arrays;
+
+/**
+ * A set of icons, identified by their {@link IconSpec} rather than by their pixels, that remembers the first seed added
+ * for each distinct icon. Adding a seed only scrambles it and does a little math, with no rendering and no objects
+ * created, so millions of seeds can be deduplicated per second. Two seeds are duplicates here exactly when they would
+ * produce the same icon.
+ * <br>
+ * Each IconSpec is packed losslessly into two longs: the two icon ids take 11 bits each, and each of the four colors
+ * takes 24 bits, since their alpha never varies. Those are kept in an open-addressing hash table with linear probing.
+ * <br>
+ * A SpecIndex is not thread-safe; synchronize on it if it is shared.
+ */
+public final class SpecIndex {
+    private long[] highs;
+    private long[] lows;
+    private long[] seeds;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates an empty SpecIndex with room for 1024 icons before it needs to grow.
+     */
+    public SpecIndex() {
+        this(1024);
+    }
+
+    /**
+     * Creates an empty SpecIndex with room for at least {@code expected} icons before it needs to grow.
+     * @param expected how many distinct icons this is expected to hold
+     */
+    public SpecIndex(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+        highs = new long[capacity];
+        lows = new long[capacity];
+        seeds = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds the icon {@code seed} would produce, if an identical icon isn't already present.
+     * @param seed the seed of an icon, as given to {@link Iconizer#generate(int, int, long)}
+     * @return true if the icon was new and was added, or false if an identical icon was already present
+     */
+    public boolean add(long seed) {
+        final long scrambled = Iconizer.scramble(seed);
+        final long high = high(scrambled), low = low(scrambled);
+        int i = place(high, low);
+        if (highs[i] != 0L) return false;
+        highs[i] = high;
+        lows[i] = low;
+        seeds[i] = seed;
+        if (++size > mask >>> 1) resize();
+        return true;
+    }
+
+    /**
+     * Checks whether an icon identical to the one {@code seed} would produce is present.
+     * @param seed the seed of an icon, as given to {@link Iconizer#generate(int, int, long)}
+     * @return true if an identical icon is present
+     */
+    public boolean contains(long seed) {
+        final long scrambled = Iconizer.scramble(seed);
+        return highs[place(high(scrambled), low(scrambled))] != 0L;
+    }
+
+    /**
+     * Gets the seed that was added for the icon identical to the one {@code seed} would produce, if there is one.
+     * @param seed the seed of an icon, as given to {@link Iconizer#generate(int, int, long)}
+     * @param defaultValue returned if no identical icon is present
+     * @return the first seed added that produces the same icon as seed, or defaultValue if there is none
+     */
+    public long findSeed(long seed, long defaultValue) {
+        final long scrambled = Iconizer.scramble(seed);
+        final int i = place(high(scrambled), low(scrambled));
+        return highs[i] == 0L ? defaultValue : seeds[i];
+    }
+
+    /**
+     * Gets how many distinct icons are present.
+     * @return the number of distinct icons added
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every icon, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(highs, 0L);
+        size = 0;
+    }
+
+    /**
+     * Packs the left icon, background, and circle. The top bit is always set, so 0 can mark an empty slot.
+     */
+    private static long high(long scrambled) {
+        return Long.MIN_VALUE | (long) Iconizer.leftIcon(Iconizer.scramble(scrambled)) << 48
+                | (long) (Iconizer.backgroundColor(scrambled) >>> 8) << 24 | Iconizer.circleColor(scrambled) >>> 8;
+    }
+
+    /**
+     * Packs the right icon and both tints.
+     */
+    private static long low(long scrambled) {
+        return (long) Iconizer.rightIcon(Iconizer.scramble(scrambled)) << 48
+                | (long) (Iconizer.leftTint(scrambled) >>> 8) << 24 | Iconizer.rightTint(scrambled) >>> 8;
+    }
+
+    /**
+     * Finds the slot holding the given key, or the empty slot where it would go.
+     */
+    private int place(long high, long low) {
+        long h = (high ^ low * 0x9E3779B97F4A7C15L) * 0xD1B54A32D192ED03L;
+        int i = (int) (h ^ h >>> 32) & mask;
+        while (highs[i] != 0L && (highs[i] != high || lows[i] != low)) {
+            i = i + 1 & mask;
+        }
+        return i;
+    }
+
+    private void resize() {
+        final long[] oldHighs = highs, oldLows = lows, oldSeeds = seeds;
+        highs = new long[oldHighs.length << 1];
+        lows = new long[oldHighs.length << 1];
+        seeds = new long[oldHighs.length << 1];
+        mask = highs.length - 1;
+        for (int j = 0; j < oldHighs.length; j++) {
+            if (oldHighs[j] != 0L) {
+                final int i = place(oldHighs[j], oldLows[j]);
+                highs[i] = oldHighs[j];
+                lows[i] = oldLows[j];
+                seeds[i] = oldSeeds[j];
+            }
+        }
+    }
+}
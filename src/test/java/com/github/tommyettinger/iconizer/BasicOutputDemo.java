@@ -21,7 +21,6 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.headless.HeadlessApplication;
 import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
 import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.PixmapIO;
 
 import java.io.IOException;
 
@@ -42,9 +41,7 @@ public class BasicOutputDemo extends ApplicationAdapter {
 
     @Override
     public void create() {
-        PixmapIO.PNG png = new PixmapIO.PNG();
-        png.setCompression(9);
-        png.setFlipY(false);
+        IconPng png = new IconPng();
         Iconizer iconizer = new Iconizer();
         long seed = args == null || args.length == 0
                 ? Iconizer.scramble(System.nanoTime())
@@ -55,6 +52,9 @@ public class BasicOutputDemo extends ApplicationAdapter {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        icon.dispose();
+        png.dispose();
+        iconizer.dispose();
         Gdx.app.exit();
     }
 
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link Iconizer#generateBatch(long[], int, int)} returns Pixmaps byte-identical to
+ * {@link Iconizer#generate(int, int, long)}, in seed order, with the Iconizer's own pool and with a ForkJoinPool.
+ * It also checks that a batch that fails, or whose caller is interrupted, throws only after every worker is done, and
+ * keeps the interrupted status. This only needs libGDX's native libraries, not a backend.
+ */
+public class BatchTest {
+    private int failures = 0;
+
+    private void fail(String message) {
+        failures++;
+        System.out.println(message);
+    }
+
+    private void compare(String what, Iconizer iconizer, long[] seeds, int width, int height, Pixmap[] batch) {
+        if (batch.length != seeds.length) {
+            fail(what + ": got " + batch.length + " icons for " + seeds.length + " seeds");
+            return;
+        }
+        for (int i = 0; i < seeds.length; i++) {
+            Pixmap serial = iconizer.generate(width, height, seeds[i]);
+            ByteBuffer a = serial.getPixels(), b = batch[i].getPixels();
+            if (batch[i].getWidth() != width || batch[i].getHeight() != height || a.limit() != b.limit()) {
+                fail(what + ": icon " + i + " has the wrong size");
+            } else {
+                for (int p = 0; p < a.limit(); p++) {
+                    if (a.get(p) != b.get(p)) {
+                        fail(what + ": icon " + i + " for seed " + seeds[i] + " differs at byte " + p);
+                        break;
+                    }
+                }
+            }
+            serial.dispose();
+            batch[i].dispose();
+        }
+    }
+
+    /**
+     * Runs tasks on one worker thread, interrupting the thread that submitted them as soon as the first task starts,
+     * and remembers every task so they can be checked afterwards.
+     */
+    private static final class InterruptingExecutor extends AbstractExecutorService {
+        final ExecutorService worker = Executors.newSingleThreadExecutor();
+        final List<Future<?>> tasks = new CopyOnWriteArrayList<>();
+        final Thread caller = Thread.currentThread();
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add((Future<?>) command);
+            worker.execute(new Runnable() {
+                @Override
+                public void run() {
+                    caller.interrupt();
+                    try {
+                        Thread.sleep(20L);
+                    } catch (InterruptedException ignored) {
+                    }
+                    command.run();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            worker.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return worker.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return worker.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return worker.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return worker.awaitTermination(timeout, unit);
+        }
+    }
+
+    @Test
+    public void batchMatchesGenerate() throws InterruptedException {
+        GdxNativesLoader.load();
+        Iconizer iconizer = new Iconizer();
+        long[] seeds = new long[257];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = Iconizer.scramble(i) ^ i;
+        }
+        compare("Own pool, 72x72", iconizer, seeds, 72, 72, iconizer.generateBatch(seeds, 72, 72));
+        compare("Own pool, 41x97", iconizer, seeds, 41, 97, iconizer.generateBatch(seeds, 41, 97));
+        compare("Own pool, no seeds", iconizer, new long[0], 72, 72, iconizer.generateBatch(new long[0], 72, 72));
+        ForkJoinPool fork = new ForkJoinPool(3);
+        compare("ForkJoinPool, 128x128", iconizer, seeds, 128, 128, iconizer.generateBatch(seeds, 128, 128, fork));
+        fork.shutdown();
+
+        try {
+            iconizer.generateBatch(seeds, -1, 72);
+            fail("A batch with a negative width should have thrown.");
+        } catch (GdxRuntimeException expected) {
+            if (!(expected.getCause() instanceof NegativeArraySizeException))
+                fail("A failed batch threw with the cause " + expected.getCause());
+        }
+
+        InterruptingExecutor interrupting = new InterruptingExecutor();
+        try {
+            iconizer.generateBatch(seeds, 72, 72, interrupting);
+            fail("An interrupted batch should have thrown.");
+        } catch (GdxRuntimeException expected) {
+            if (!(expected.getCause() instanceof InterruptedException))
+                fail("An interrupted batch threw with the cause " + expected.getCause());
+        }
+        if (!Thread.interrupted())
+            fail("An interrupted batch didn't keep the interrupted status.");
+        if (interrupting.tasks.isEmpty())
+            fail("The interrupting executor never ran a task.");
+        for (Future<?> task : interrupting.tasks) {
+            if (!task.isDone() || task.isCancelled()) {
+                fail("An interrupted batch returned while a worker could still write into its results.");
+                break;
+            }
+        }
+        interrupting.shutdown();
+        interrupting.awaitTermination(10L, TimeUnit.SECONDS);
+        compare("Own pool after an interrupt", iconizer, seeds, 72, 72, iconizer.generateBatch(seeds, 72, 72));
+
+        iconizer.dispose();
+        assertEquals("failures", 0, failures);
+    }
+}
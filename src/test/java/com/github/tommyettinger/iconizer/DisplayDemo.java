@@ -39,6 +39,10 @@ public class DisplayDemo extends ApplicationAdapter {
     private Texture blank;
     private long lastProcessedTime = 0L;
     private Iconizer iconizer;
+    private Pixmap icon;
+    private GpuIconizer gpu;
+    private final long[] seeds = new long[16];
+    private Texture shown;
     public static void main(String[] arg) {
         Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
         config.setTitle("Random Icon Display Demo");
@@ -54,15 +58,16 @@ public class DisplayDemo extends ApplicationAdapter {
     @Override
     public void create() {
         iconizer = new Iconizer();
+        icon = new Pixmap(128, 128, Pixmap.Format.RGBA8888);
         blank = new Texture(512, 512, Pixmap.Format.RGBA8888);
         for (int x = 0; x < 4; x++) {
             for (int y = 0; y < 4; y++) {
-                Pixmap b = iconizer.generate(128, 128, System.nanoTime() + x * 12345L + y);
-                blank.draw(b, x * 128, y * 128);
-                b.dispose();
+                blank.draw(iconizer.generateInto(icon, System.nanoTime() + x * 12345L + y), x * 128, y * 128);
             }
         }
 //        blank.draw(iconizer.generate(72, 72, System.nanoTime()), 0, 0);
+        shown = blank;
+        gpu = new GpuIconizer();
         batch = new SpriteBatch(1000);
         screenView = new ScreenViewport();
         screenView.getCamera().position.set(SCREEN_WIDTH * 0.5f, SCREEN_HEIGHT * 0.5f, 0);
@@ -78,10 +83,19 @@ public class DisplayDemo extends ApplicationAdapter {
         handleInput();
         batch.setProjectionMatrix(screenView.getCamera().combined);
         batch.begin();
-        batch.draw(blank, 0, 0);
+        batch.draw(shown, 0, 0);
         batch.end();
     }
 
+    @Override
+    public void dispose() {
+        blank.dispose();
+        icon.dispose();
+        gpu.dispose();
+        batch.dispose();
+        iconizer.dispose();
+    }
+
     @Override
     public void resize(int width, int height) {
 //        screenView.update(width, height);
@@ -94,15 +108,23 @@ public class DisplayDemo extends ApplicationAdapter {
             Gdx.app.exit();
         else if (TimeUtils.timeSinceMillis(lastProcessedTime) > 150) {
             lastProcessedTime = TimeUtils.millis();
-            if (input.isKeyPressed(Input.Keys.R)) // random
+            if (input.isKeyPressed(Input.Keys.R)) // random, drawn on the CPU and uploaded one icon at a time
+            {
+                for (int x = 0; x < 4; x++) {
+                    for (int y = 0; y < 4; y++) {
+                        blank.draw(iconizer.generateInto(icon, System.nanoTime() + x * 12345L + y), x * 128, y * 128);
+                    }
+                }
+                shown = blank;
+            }
+            else if (input.isKeyPressed(Input.Keys.G)) // random, drawn on the GPU as one sheet
             {
                 for (int x = 0; x < 4; x++) {
                     for (int y = 0; y < 4; y++) {
-                        Pixmap b = iconizer.generate(128, 128, System.nanoTime() + x * 12345L + y);
-                        blank.draw(b, x * 128, y * 128);
-                        b.dispose();
+                        seeds[y * 4 + x] = System.nanoTime() + x * 12345L + y;
                     }
                 }
+                shown = gpu.render(seeds, 128, 128, 4);
             }
         }
     }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that every icon in the golden corpus, {@code golden/icons.txt} in the test resources, still comes out with
+ * exactly the same pixels. Most lines of the corpus have a width, a height, a long seed, and the CRC-32 of the icon's
+ * RGBA8888 bytes, in row-major order. Lines starting with {@code names} instead have a width, a height, the CRC-32, and
+ * a group of tab-separated names passed to {@link Iconizer#generate(int, int, Object...)}, so the default way names
+ * are hashed can't change either; lines starting with {@code hashed} are the same, but for
+ * {@link Iconizer#generateHashed(int, int, Object...)}. Each icon is regenerated twice, once with {@link Iconizer}
+ * and once with {@link IconCompositor}, spread over one thread per processor, and both must match the corpus. This
+ * runs with the other tests; to run only this, use {@code gradle test --tests *GoldenTest}.
+ * <br>
+ * The corpus must not change when only speed is being worked on, because projects regenerate their icons from the
+ * same seeds later. If a change to the look of icons is intended, running {@link #main(String[])} with the argument
+ * {@code write} and a file path writes a new corpus there, using Iconizer.
+ */
+public class GoldenTest {
+    public static final String CORPUS = "golden/icons.txt";
+    /**
+     * Each row is a width, a height, and how many seeds the corpus has at that size.
+     */
+    private static final int[][] SIZES = {
+            {72, 72, 800}, {32, 32, 600}, {16, 16, 200}, {48, 48, 200}, {64, 64, 200}, {96, 96, 200},
+            {128, 128, 300}, {33, 40, 100}, {100, 60, 100}, {71, 73, 100}, {256, 256, 60}, {512, 512, 30},
+            {1024, 1024, 10},
+    };
+
+    /**
+     * The sizes each group of names is checked at.
+     */
+    private static final int[] NAME_SIZES = {72, 48, 192};
+    /**
+     * Groups of names, like a project might pass to {@link Iconizer#generate(int, int, Object...)}; each group is
+     * passed in one call. These start with some awkward cases, and end with many ordinary projects.
+     */
+    private static final String[][] NAMES = new String[52][];
+
+    static {
+        String[][] special = {
+                {"My Cool Game", "com.example.cool"}, {"MyGdxGame"}, {"Aa"}, {"BB"}, {"Aa", "x"}, {"BB", "x"},
+                {""}, {"été"}, {"日本のゲーム", "jp.example.game"}, {"gdx-liftoff", "com.github.tommyettinger", "core"},
+                {"Aa", "BB", "Aa"}, null,
+        };
+        // Long enough that hash64() copies it in more than one block.
+        StringBuilder sb = new StringBuilder(300);
+        while (sb.length() < 300) sb.append("A very long project name ").append(sb.length()).append(' ');
+        special[special.length - 1] = new String[]{sb.toString()};
+        System.arraycopy(special, 0, NAMES, 0, special.length);
+        for (int i = special.length; i < NAMES.length; i++) {
+            NAMES[i] = new String[]{"Project " + i, "io.github.user" + i + ".game"};
+        }
+    }
+
+    /**
+     * Writes a new corpus, given the arguments {@code write} and a file path; this only needs libGDX's native
+     * libraries, not a backend.
+     */
+    public static void main(String[] arg) throws IOException {
+        if (arg.length < 2 || !"write".equals(arg[0])) {
+            System.out.println("Usage: GoldenTest write <path>");
+            System.exit(1);
+        }
+        GdxNativesLoader.load();
+        write(arg[1]);
+    }
+
+    @Test
+    public void matchesCorpus() throws Exception {
+        GdxNativesLoader.load();
+        final List<Entry> entries = read();
+        assertFalse("The corpus is empty.", entries.isEmpty());
+        assertEquals("mismatches", 0, check(entries));
+    }
+
+    /**
+     * Gets the i-th seed used at any size: some small seeds, then seeds spread over the whole range of longs.
+     */
+    private static long seed(int i) {
+        if (i < 64) return i - 32;
+        long z = i * 0x9E3779B97F4A7C15L;
+        z = (z ^ z >>> 27) * 0xF1357AEA2E62A9C5L;
+        return z ^ z >>> 31;
+    }
+
+    private static void write(String path) throws IOException {
+        Iconizer iconizer = new Iconizer();
+        long start = System.nanoTime();
+        int count = 0;
+        try (PrintWriter out = new PrintWriter(path, "UTF-8")) {
+            out.println("# Golden corpus for GoldenTest: width height seed crc32, where the CRC-32 is of the RGBA8888 bytes.");
+            out.println("# Lines starting with names or hashed are: kind width height crc32 names, with tabs between names.");
+            out.println("# Don't edit this by hand; icons must not change unless that is intended.");
+            for (int[] size : SIZES) {
+                for (int i = 0; i < size[2]; i++) {
+                    long seed = seed(i);
+                    Pixmap icon = iconizer.generate(size[0], size[1], seed);
+                    out.println(size[0] + " " + size[1] + " " + seed + " " + hex(crc(icon)));
+                    icon.dispose();
+                    count++;
+                }
+            }
+            for (int hashed = 0; hashed < 2; hashed++) {
+                for (String[] names : NAMES) {
+                    for (int size : NAME_SIZES) {
+                        Pixmap icon = hashed == 0 ? iconizer.generate(size, size, (Object[]) names)
+                                : iconizer.generateHashed(size, size, (Object[]) names);
+                        out.println((hashed == 0 ? "names " : "hashed ") + size + " " + size + " " + hex(crc(icon))
+                                + " " + String.join("\t", names));
+                        icon.dispose();
+                        count++;
+                    }
+                }
+            }
+        }
+        System.out.printf("Wrote %d icons to %s in %.1f ms.%n", count, path, (System.nanoTime() - start) * 1e-6);
+    }
+
+    /**
+     * One icon in the corpus. If names is null, the icon was made from the long seed; otherwise, from the names, hashed
+     * with {@link Iconizer#hashAll(Object...)} if hashed is true, or {@link Iconizer#scrambleAll(Object...)} if not.
+     */
+    private static final class Entry {
+        final int width, height;
+        final long seed, expected;
+        final String[] names;
+        final boolean hashed;
+
+        Entry(int width, int height, long seed, long expected, String[] names, boolean hashed) {
+            this.width = width;
+            this.height = height;
+            this.seed = seed;
+            this.expected = expected;
+            this.names = names;
+            this.hashed = hashed;
+        }
+
+        @Override
+        public String toString() {
+            return width + "x" + height + (names == null ? " with seed " + seed
+                    : (hashed ? " with hashed names " : " with names ") + Arrays.toString(names));
+        }
+    }
+
+    private static int check(final List<Entry> entries) throws Exception {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final IconCompositor compositor = new IconCompositor();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<Integer>> results = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int first = t;
+            results.add(executor.submit(() -> {
+                Iconizer iconizer = new Iconizer();
+                int failures = 0;
+                for (int e = first; e < entries.size(); e += threads) {
+                    Entry entry = entries.get(e);
+                    final int width = entry.width, height = entry.height;
+                    final Pixmap icon;
+                    final long seed;
+                    if (entry.names == null) {
+                        seed = entry.seed;
+                        icon = iconizer.generate(width, height, seed);
+                    } else if (entry.hashed) {
+                        seed = Iconizer.hashAll((Object[]) entry.names);
+                        icon = iconizer.generateHashed(width, height, (Object[]) entry.names);
+                    } else {
+                        seed = Iconizer.scrambleAll((Object[]) entry.names);
+                        icon = iconizer.generate(width, height, (Object[]) entry.names);
+                    }
+                    long fromPixmap = crc(icon);
+                    icon.dispose();
+                    long fromCompositor = crc(compositor.generate(width, height, seed));
+                    if (fromPixmap != entry.expected || fromCompositor != entry.expected) {
+                        failures++;
+                        System.out.println("Mismatch at " + entry + ": expected " + hex(entry.expected)
+                                + ", Iconizer gave " + hex(fromPixmap) + ", IconCompositor gave " + hex(fromCompositor));
+                    }
+                }
+                iconizer.dispose();
+                return failures;
+            }));
+        }
+        int failures = 0;
+        for (Future<Integer> f : results) {
+            failures += f.get();
+        }
+        executor.shutdown();
+        System.out.printf("Checked %d icons two ways on %d threads in %.1f ms, with %d mismatches.%n",
+                entries.size(), threads, (System.nanoTime() - start) * 1e-6, failures);
+        return failures;
+    }
+
+    private static List<Entry> read() throws IOException {
+        InputStream in = GoldenTest.class.getClassLoader().getResourceAsStream(CORPUS);
+        if (in == null)
+            throw new IOException("Could not find " + CORPUS + " on the classpath.");
+        List<Entry> entries = new ArrayList<>(4096);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (line.startsWith("names ") || line.startsWith("hashed ")) {
+                    String[] parts = line.split(" ", 5);
+                    entries.add(new Entry(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), 0L,
+                            Long.parseLong(parts[3], 16), parts[4].split("\t", -1), parts[0].equals("hashed")));
+                } else {
+                    String[] parts = line.split(" ");
+                    entries.add(new Entry(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                            Long.parseLong(parts[2]), Long.parseLong(parts[3], 16), null, false));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static long crc(Pixmap pixmap) {
+        ByteBuffer pixels = pixmap.getPixels();
+        byte[] bytes = new byte[pixmap.getWidth() * pixmap.getHeight() * 4];
+        pixels.position(0);
+        pixels.get(bytes);
+        pixels.position(0);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static long crc(int[] rgba) {
+        ByteBuffer bytes = ByteBuffer.allocate(rgba.length * 4);
+        bytes.asIntBuffer().put(rgba);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array());
+        return crc.getValue();
+    }
+
+    private static String hex(long crc) {
+        String s = Long.toHexString(crc);
+        return "00000000".substring(s.length()) + s;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Checks that {@link GpuIconizer} sheets match what {@link IconCompositor} draws for the same seeds, within stated
+ * tolerances, at several icon sizes. The GPU filters and blends a little differently than gdx2d, mostly along the edge
+ * of the circle and the edges of scaled icons, so pixels aren't compared exactly. Instead, for every sheet and every
+ * icon in it:
+ * <ul>
+ *     <li>the mean difference per channel, out of 255, must be at most {@link #SHEET_MEAN} over the whole sheet and
+ *     at most {@link #ICON_MEAN} in any one icon, and</li>
+ *     <li>at most {@link #ICON_FAR} of any one icon's pixels may have a channel off by more than {@link #FAR}.</li>
+ * </ul>
+ * An icon that is flipped, shifted, or has the wrong source icon or color fails these by a wide margin. Cells past the
+ * last seed must be fully transparent, and rendering the same seeds twice must give identical sheets.
+ * <br>
+ * The tolerances come from {@link GpuModelTest}, which draws these sheets with a software model of Mesa's llvmpipe.
+ * At 72x72 that differs from the CPU by 0.44 per channel on average, but scaled icons differ much more, because the
+ * GPU samples the atlas at pixel centers and IconCompositor doesn't. The worst it measured was a sheet mean of 6.6, an
+ * icon mean of 11.6, and 13% of an icon's pixels far off, all at 48x48 or 33x40; the tolerances leave room above those,
+ * while the closest wrong icon it measured had a mean of 21.8 and 21.5% of its pixels far off.
+ * <br>
+ * This needs OpenGL, but not a GPU. Run it with {@code gradle gpuCheck}, which asks for Mesa's llvmpipe software
+ * renderer; on a Linux machine without a display, use {@code xvfb-run -a gradle gpuCheck}.
+ * <br>
+ * This exits with status 1 if any check fails, or 2 if no OpenGL context could be created at all.
+ */
+public class GpuCheck extends ApplicationAdapter {
+    /**
+     * The largest mean difference per channel, out of 255, allowed over a whole sheet.
+     */
+    public static final double SHEET_MEAN = 8.0;
+    /**
+     * The largest mean difference per channel, out of 255, allowed in any single icon.
+     */
+    public static final double ICON_MEAN = 14.0;
+    /**
+     * A channel that differs by more than this, out of 255, makes its pixel count as far off.
+     */
+    public static final int FAR = 64;
+    /**
+     * The largest fraction of any single icon's pixels that may be far off.
+     */
+    public static final double ICON_FAR = 0.16;
+    /**
+     * Each row is an icon width, an icon height, how many columns the sheet has, and how many seeds are in it.
+     */
+    static final int[][] SHEETS = {{72, 72, 8, 64}, {48, 48, 10, 95}, {128, 128, 4, 16}, {33, 40, 7, 30}};
+
+    private static boolean created = false;
+    private static int failures = 0;
+
+    public static void main(String[] arg) {
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("GPU Check");
+        config.setWindowedMode(64, 64);
+        config.setInitialVisible(false);
+        config.disableAudio(true);
+        try {
+            new Lwjgl3Application(new GpuCheck(), config);
+        } catch (Throwable t) {
+            if (!created) {
+                System.out.println("Could not create an OpenGL context: " + t);
+                System.out.println("Without a display, run this with: xvfb-run -a gradle gpuCheck");
+                System.exit(2);
+            }
+            t.printStackTrace();
+            failures++;
+        }
+        System.out.println(failures + " failures.");
+        if (failures != 0)
+            System.exit(1);
+    }
+
+    /**
+     * Gets the seeds drawn in a sheet, given one row of {@link #SHEETS}.
+     */
+    static long[] seeds(int[] sheet) {
+        final long[] seeds = new long[sheet[3]];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = Iconizer.scramble(i + sheet[0] * 1000L) ^ i;
+        }
+        return seeds;
+    }
+
+    private static void fail(String message) {
+        failures++;
+        System.out.println(message);
+    }
+
+    /**
+     * Gets the RGBA8888 color at (x, y) in a Pixmap that uses RGBA8888.
+     */
+    private static int rgba(ByteBuffer px, int sheetWidth, int x, int y) {
+        final int c = px.getInt((y * sheetWidth + x) << 2);
+        return px.order() == ByteOrder.BIG_ENDIAN ? c : Integer.reverseBytes(c);
+    }
+
+    /**
+     * Compares a sheet to the CPU output for the same seeds against the tolerances above, checks that cells past the
+     * last seed are transparent, and returns the number of problems found, printing each one.
+     */
+    static int compare(String what, Pixmap sheet, long[] seeds, int width, int height, int columns) {
+        final IconCompositor compositor = new IconCompositor();
+        final int[] expected = new int[width * height];
+        final ByteBuffer px = sheet.getPixels();
+        final int sheetWidth = sheet.getWidth();
+        int problems = 0;
+        long sheetTotal = 0L;
+        double worstMean = 0.0, worstFar = 0.0;
+        for (int i = 0; i < seeds.length; i++) {
+            compositor.generateInto(expected, width, height, seeds[i]);
+            final int left = i % columns * width, top = i / columns * height;
+            long total = 0L;
+            int far = 0;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    final int c = rgba(px, sheetWidth, left + x, top + y), e = expected[y * width + x];
+                    int most = 0;
+                    for (int s = 0; s < 32; s += 8) {
+                        final int d = Math.abs((c >>> s & 255) - (e >>> s & 255));
+                        total += d;
+                        most = Math.max(most, d);
+                    }
+                    if (most > FAR) far++;
+                }
+            }
+            sheetTotal += total;
+            final double mean = total / (width * height * 4.0), farFraction = far / (double) (width * height);
+            worstMean = Math.max(worstMean, mean);
+            worstFar = Math.max(worstFar, farFraction);
+            if (mean > ICON_MEAN || farFraction > ICON_FAR) {
+                problems++;
+                System.out.printf("%s: icon %d (seed %d) has mean difference %.3f and %.1f%% of pixels far off.%n",
+                        what, i, seeds[i], mean, farFraction * 100.0);
+            }
+        }
+        final double sheetMean = sheetTotal / (seeds.length * (double) width * height * 4.0);
+        if (sheetMean > SHEET_MEAN) {
+            problems++;
+            System.out.printf("%s: the mean difference over the sheet is %.3f.%n", what, sheetMean);
+        }
+        for (int i = seeds.length, rows = sheet.getHeight() / height; i < columns * rows; i++) {
+            final int left = i % columns * width, top = i / columns * height;
+            search:
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (rgba(px, sheetWidth, left + x, top + y) != 0) {
+                        problems++;
+                        System.out.println(what + ": empty cell " + i + " isn't transparent.");
+                        break search;
+                    }
+                }
+            }
+        }
+        System.out.printf("%s: sheet mean %.3f, worst icon mean %.3f, worst icon far off %.2f%%.%n",
+                what, sheetMean, worstMean, worstFar * 100.0);
+        return problems;
+    }
+
+    @Override
+    public void create() {
+        created = true;
+        System.out.println("GL renderer: " + Gdx.gl.glGetString(GL20.GL_RENDERER));
+        GpuIconizer gpu = new GpuIconizer();
+        for (int[] s : SHEETS) {
+            final int width = s[0], height = s[1], columns = s[2];
+            final long[] seeds = seeds(s);
+            final String what = width + "x" + height;
+            Pixmap sheet = gpu.generateSheet(seeds, width, height, columns);
+            final int rows = (seeds.length + columns - 1) / columns;
+            if (sheet.getWidth() != columns * width || sheet.getHeight() != rows * height) {
+                fail(what + ": the sheet is " + sheet.getWidth() + "x" + sheet.getHeight());
+            } else {
+                failures += compare(what, sheet, seeds, width, height, columns);
+                Pixmap again = gpu.generateSheet(seeds, width, height, columns);
+                if (!again.getPixels().equals(sheet.getPixels()))
+                    fail(what + ": rendering the same seeds twice gave different sheets.");
+                again.dispose();
+            }
+            sheet.dispose();
+        }
+        gpu.dispose();
+        Gdx.app.exit();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the tolerances in {@link GpuCheck} against a software model of how Mesa's llvmpipe draws
+ * {@link GpuIconizer}'s quads, so they can be kept honest on machines that can't create an OpenGL context. The model
+ * draws the same quads from {@link GpuIconizer#quads(IconSpec, int, int, int, int, int, int, float[])} over the same
+ * texture from {@link GpuIconizer#pack(IconAtlas)}, the way llvmpipe does for an RGBA8888 framebuffer and an 8-bit
+ * texture:
+ * <ul>
+ *     <li>a pixel is drawn when its center is inside a quad, with the top-left fill rule;</li>
+ *     <li>texture coordinates are interpolated at the pixel center, and bilinear filtering uses 8 bits of fraction
+ *     with clamping at the texture's edge;</li>
+ *     <li>the vertex alpha is packed by SpriteBatch with its lowest bit cleared, then scaled by 255/254 in the vertex
+ *     shader, and the fragment's alpha is rounded to 8 bits;</li>
+ *     <li>blending is done in 8 bits, with separate alpha, rounding each product.</li>
+ * </ul>
+ * Every sheet GpuCheck draws is drawn by the model and compared with {@link GpuCheck#compare}, so this fails if the
+ * tolerances are too tight for llvmpipe's rounding. This only needs libGDX's native libraries, not a backend.
+ */
+public class GpuModelTest {
+    /**
+     * Multiplies two 8-bit values as if they were fractions of 255, rounding to nearest.
+     */
+    private static int mul(int a, int b) {
+        final int t = a * b + 128;
+        return t + (t >>> 8) >>> 8;
+    }
+
+    private static int texel(byte[] texture, int side, int x, int y) {
+        x = Math.min(Math.max(x, 0), side - 1);
+        y = Math.min(Math.max(y, 0), side - 1);
+        return texture[y * side + x] & 255;
+    }
+
+    private static int lerp(int a, int b, int weight) {
+        return a + ((b - a) * weight + 128 >> 8);
+    }
+
+    /**
+     * Draws one quad laid out by GpuIconizer into an RGBA8888 framebuffer.
+     */
+    private static void draw(int[] framebuffer, int width, int height, byte[] texture, int side, float[] quads, int q) {
+        final float x0 = quads[q], y0 = quads[q + 1], w = quads[q + 2], h = quads[q + 3];
+        final float u = quads[q + 4], v = quads[q + 5], u2 = quads[q + 6], v2 = quads[q + 7];
+        final int abgr = Float.floatToRawIntBits(quads[q + 8]);
+        final int r = abgr & 255, g = abgr >>> 8 & 255, b = abgr >>> 16 & 255;
+        final float alpha = Math.min(1f, (abgr >>> 24) / 255f * (255f / 254f));
+        final int left = Math.max((int) Math.ceil(x0 - 0.5f), 0), right = Math.min((int) Math.ceil(x0 + w - 0.5f), width);
+        final int top = Math.max((int) Math.ceil(y0 - 0.5f), 0), bottom = Math.min((int) Math.ceil(y0 + h - 0.5f), height);
+        for (int py = top; py < bottom; py++) {
+            final float tv = v + (v2 - v) * ((py + 0.5f - y0) / h);
+            final int sy = (int) Math.floor((tv * side - 0.5f) * 256f), ty = sy >> 8, wy = sy & 255;
+            for (int px = left; px < right; px++) {
+                final float tu = u + (u2 - u) * ((px + 0.5f - x0) / w);
+                final int sx = (int) Math.floor((tu * side - 0.5f) * 256f), tx = sx >> 8, wx = sx & 255;
+                final int t = lerp(lerp(texel(texture, side, tx, ty), texel(texture, side, tx + 1, ty), wx),
+                        lerp(texel(texture, side, tx, ty + 1), texel(texture, side, tx + 1, ty + 1), wx), wy);
+                final int sa = Math.round(alpha * t), ia = 255 - sa;
+                final int i = py * width + px, d = framebuffer[i];
+                framebuffer[i] = Math.min(mul(r, sa) + mul(d >>> 24, ia), 255) << 24
+                        | Math.min(mul(g, sa) + mul(d >>> 16 & 255, ia), 255) << 16
+                        | Math.min(mul(b, sa) + mul(d >>> 8 & 255, ia), 255) << 8
+                        | Math.min(sa + mul(d & 255, ia), 255);
+            }
+        }
+    }
+
+    @Test
+    public void modelFitsTolerances() {
+        GdxNativesLoader.load();
+        final IconAtlas atlas = IconAtlas.get();
+        final int columns = GpuIconizer.columns(atlas);
+        final Pixmap packed = GpuIconizer.pack(atlas);
+        final int side = packed.getWidth();
+        final byte[] texture = new byte[side * side];
+        packed.getPixels().get(texture);
+        packed.dispose();
+        final float[] quads = new float[GpuIconizer.QUAD_FLOATS * 4];
+        int failures = 0;
+        for (int[] s : GpuCheck.SHEETS) {
+            final int width = s[0], height = s[1], sheetColumns = s[2];
+            final long[] seeds = GpuCheck.seeds(s);
+            final int rows = (seeds.length + sheetColumns - 1) / sheetColumns;
+            final int sheetWidth = sheetColumns * width, sheetHeight = rows * height;
+            final int[] framebuffer = new int[sheetWidth * sheetHeight];
+            for (int i = 0; i < seeds.length; i++) {
+                GpuIconizer.quads(Iconizer.describe(seeds[i]), columns, atlas.count,
+                        i % sheetColumns * width, i / sheetColumns * height, width, height, quads);
+                for (int q = 0; q < quads.length; q += GpuIconizer.QUAD_FLOATS) {
+                    draw(framebuffer, sheetWidth, sheetHeight, texture, side, quads, q);
+                }
+            }
+            final Pixmap sheet = new Pixmap(sheetWidth, sheetHeight, Pixmap.Format.RGBA8888);
+            final ByteBuffer px = sheet.getPixels();
+            for (int i = 0; i < framebuffer.length; i++) {
+                final int c = framebuffer[i];
+                px.put((byte) (c >>> 24)).put((byte) (c >>> 16)).put((byte) (c >>> 8)).put((byte) c);
+            }
+            px.position(0);
+            failures += GpuCheck.compare("Model " + width + "x" + height, sheet, seeds, width, height, sheetColumns);
+            // Every icon compared to the next seed's icon must fail, or the tolerances can't catch a wrong icon.
+            final long[] shifted = new long[seeds.length];
+            for (int i = 0; i < seeds.length; i++) {
+                shifted[i] = seeds[(i + 1) % seeds.length];
+            }
+            final int wrong = GpuCheck.compare("Shifted " + width + "x" + height, sheet, shifted, width, height,
+                    sheetColumns);
+            if (wrong < seeds.length) {
+                failures++;
+                System.out.println("Only " + wrong + " of " + seeds.length + " wrong icons failed at " + width + "x" + height);
+            }
+            sheet.dispose();
+        }
+        assertEquals("failures", 0, failures);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.Pixmap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that Iconizer works on the headless backend, with no OpenGL context, when many Iconizers are created at once
+ * on separate worker threads. Every icon is compared to what {@link IconCompositor} draws for the same seed, and the
+ * demo exits with status 1 if any pixel differs or any thread fails.
+ */
+public class HeadlessThreadsDemo extends ApplicationAdapter {
+    public static final int THREADS = 8;
+    public static final int ICONS_PER_THREAD = 64;
+    public static final int SIZE = 72;
+
+    public static void main(String[] arg) {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new HeadlessThreadsDemo(), config);
+    }
+
+    @Override
+    public void create() {
+        final AtomicInteger failures = new AtomicInteger();
+        final IconCompositor compositor = new IconCompositor();
+        Thread[] threads = new Thread[THREADS];
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Iconizer iconizer = new Iconizer();
+                        int[] expected = new int[SIZE * SIZE];
+                        for (int i = 0; i < ICONS_PER_THREAD; i++) {
+                            long seed = Iconizer.scramble(id * ICONS_PER_THREAD + i);
+                            Pixmap icon = iconizer.generate(SIZE, SIZE, seed);
+                            compositor.generateInto(expected, SIZE, SIZE, seed);
+                            ByteBuffer px = icon.getPixels();
+                            boolean big = px.order() == ByteOrder.BIG_ENDIAN;
+                            for (int p = 0; p < expected.length; p++) {
+                                int c = px.getInt(p << 2);
+                                if ((big ? c : Integer.reverseBytes(c)) != expected[p]) {
+                                    failures.incrementAndGet();
+                                    break;
+                                }
+                            }
+                            icon.dispose();
+                        }
+                        iconizer.dispose();
+                    } catch (Throwable e) {
+                        e.printStackTrace();
+                        failures.incrementAndGet();
+                    }
+                }
+            }, "HeadlessThreadsDemo-" + t);
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        System.out.printf("Generated %d icons on %d threads in %.1f ms, with %d failures.%n",
+                THREADS * ICONS_PER_THREAD, THREADS, (System.nanoTime() - start) * 1e-6, failures.get());
+        Gdx.app.exit();
+        if (failures.get() != 0)
+            System.exit(1);
+    }
+}
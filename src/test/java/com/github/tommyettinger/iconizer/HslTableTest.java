@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tommyettinger.iconizer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the lookup tables in {@link HslTable} give exactly the same colors as the float math they replace, for
+ * every combination of seed bits that the background, circle, and both tints actually read. This needs no libGDX
+ * backend.
+ */
+public class HslTableTest {
+    @Test
+    public void tablesMatchFloatMath() {
+        long checked = 0L, failures = 0L;
+        // Background and circle read bits 1 to 15.
+        for (long seed = 0; seed < 1L << 16; seed++) {
+            if (Iconizer.backgroundColor(seed) != Iconizer.backgroundColorFloat(seed)) failures++;
+            if (Iconizer.circleColor(seed) != Iconizer.circleColorFloat(seed)) failures++;
+            checked += 2;
+        }
+        // The left tint reads bits 17 to 26, and 48 to 52.
+        for (long hue = 0; hue < 64; hue++) {
+            for (long sl = 0; sl < 1024; sl++) {
+                long seed = hue << 47 | sl << 17;
+                if (Iconizer.leftTint(seed) != Iconizer.leftTintFloat(seed)) failures++;
+                checked++;
+            }
+        }
+        // The right tint reads bits 27 to 45, and 48 to 52.
+        for (long hue = 0; hue < 64; hue += 2) {
+            for (long bits = 0; bits < 1L << 19; bits++) {
+                long seed = hue << 47 | bits << 27;
+                if (Iconizer.rightTint(seed) != Iconizer.rightTintFloat(seed)) failures++;
+                checked++;
+            }
+        }
+        System.out.println("Checked " + checked + " colors, with " + failures + " mismatches.");
+        assertEquals("mismatches", 0L, failures);
+    }
+}
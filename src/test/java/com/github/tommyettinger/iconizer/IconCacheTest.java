@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link IconCache} returns the same pixels as {@link Iconizer#generate(int, int, long)}, evicts the
+ * least-recently-used icons first, never holds more than {@link IconCache#getMaxBytes()}, and counts hits, misses and
+ * evictions correctly. A long run of random requests is checked against a simple model of an LRU cache. This only
+ * needs libGDX's native libraries, not a backend.
+ */
+public class IconCacheTest {
+    private int failures = 0;
+
+    private void expect(String what, long actual, long expected) {
+        if (actual != expected) {
+            failures++;
+            System.out.println(what + " was " + actual + ", but should be " + expected);
+        }
+    }
+
+    private void check(String what, boolean ok) {
+        if (!ok) {
+            failures++;
+            System.out.println(what + " failed");
+        }
+    }
+
+    private static boolean same(Pixmap a, Pixmap b) {
+        ByteBuffer x = a.getPixels(), y = b.getPixels();
+        if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight() || x.limit() != y.limit()) return false;
+        for (int i = 0; i < x.limit(); i++) {
+            if (x.get(i) != y.get(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets an icon from the cache, checks it against the Iconizer, and checks the byte budget.
+     */
+    private void request(IconCache cache, Iconizer iconizer, int size, long seed) {
+        Pixmap cached = cache.generate(size, size, seed), fresh = iconizer.generate(size, size, seed);
+        check("Pixels for seed " + seed + " at " + size + "x" + size, same(cached, fresh));
+        check("Bytes within budget after seed " + seed, cache.getBytes() <= cache.getMaxBytes());
+        cached.dispose();
+        fresh.dispose();
+    }
+
+    @Test
+    public void cacheMatchesLruModel() {
+        GdxNativesLoader.load();
+        Iconizer iconizer = new Iconizer();
+        final long icon = 32 * 32 * 4;
+        IconCache cache = new IconCache(iconizer, 3 * icon);
+
+        for (long seed = 1; seed <= 3; seed++) {
+            request(cache, iconizer, 32, seed);
+        }
+        expect("Misses after three new icons", cache.getMisses(), 3);
+        expect("Size after three new icons", cache.size(), 3);
+        expect("Bytes after three new icons", cache.getBytes(), 3 * icon);
+        request(cache, iconizer, 32, 1);
+        expect("Hits after asking for seed 1 again", cache.getHits(), 1);
+        request(cache, iconizer, 32, 4);
+        check("Seed 1 kept after it was used", cache.contains(32, 32, 1));
+        check("Seed 2 evicted as least-recently-used", !cache.contains(32, 32, 2));
+        check("Seed 3 kept", cache.contains(32, 32, 3));
+        check("Seed 4 cached", cache.contains(32, 32, 4));
+        check("Seed 4 at another size not cached", !cache.contains(31, 32, 4));
+        expect("Evictions after seed 4", cache.getEvictions(), 1);
+        // contains() must not count as a use, so seed 3 is still the eldest.
+        request(cache, iconizer, 32, 5);
+        check("Seed 3 evicted even after contains()", !cache.contains(32, 32, 3));
+        expect("Hits after contains()", cache.getHits(), 1);
+
+        request(cache, iconizer, 64, 6);
+        check("An icon over the budget isn't cached", !cache.contains(64, 64, 6));
+        expect("Evictions after an icon over the budget", cache.getEvictions(), 2);
+        request(cache, iconizer, 48, 7);
+        expect("Size after a 48x48 icon", cache.size(), 1);
+        expect("Bytes after a 48x48 icon", cache.getBytes(), 48 * 48 * 4);
+        expect("Evictions after a 48x48 icon", cache.getEvictions(), 5);
+
+        Pixmap wrong = new Pixmap(32, 32, Pixmap.Format.RGB888);
+        try {
+            cache.generateInto(wrong, 1L);
+            check("generateInto() rejecting an RGB888 Pixmap", false);
+        } catch (IllegalArgumentException expected) {
+        }
+        wrong.dispose();
+
+        cache.clear();
+        expect("Size after clear()", cache.size(), 0);
+        expect("Bytes after clear()", cache.getBytes(), 0);
+        cache.resetStats();
+        expect("Hits after resetStats()", cache.getHits(), 0);
+
+        // Random requests, checked against a LinkedHashMap in access order that evicts the same way.
+        final int[] sizes = {16, 24, 32};
+        final LinkedHashMap<String, Long> model = new LinkedHashMap<>(16, 0.75f, true);
+        long modelBytes = 0L, modelHits = 0L, modelEvictions = 0L;
+        Random random = new Random(123L);
+        for (int i = 0; i < 3000; i++) {
+            final int size = sizes[random.nextInt(sizes.length)];
+            final long seed = random.nextInt(12), bytes = size * size * 4L;
+            final String key = seed + " " + size;
+            if (model.get(key) != null) {
+                modelHits++;
+            } else {
+                while (modelBytes + bytes > cache.getMaxBytes()) {
+                    Iterator<Map.Entry<String, Long>> it = model.entrySet().iterator();
+                    modelBytes -= it.next().getValue();
+                    it.remove();
+                    modelEvictions++;
+                }
+                model.put(key, bytes);
+                modelBytes += bytes;
+            }
+            request(cache, iconizer, size, seed);
+            if (cache.getBytes() != modelBytes || cache.size() != model.size()) {
+                expect("Bytes after random request " + i, cache.getBytes(), modelBytes);
+                break;
+            }
+        }
+        for (int size : sizes) {
+            for (long seed = 0; seed < 12; seed++) {
+                check("Cached state of seed " + seed + " at " + size + "x" + size + " matching the model",
+                        cache.contains(size, size, seed) == model.containsKey(seed + " " + size));
+            }
+        }
+        expect("Hits after random requests", cache.getHits(), modelHits);
+        expect("Misses after random requests", cache.getMisses(), 3000 - modelHits);
+        expect("Evictions after random requests", cache.getEvictions(), modelEvictions);
+
+        cache.dispose();
+        expect("Bytes after dispose()", cache.getBytes(), 0);
+        iconizer.dispose();
+        assertEquals("failures", 0, failures);
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link IconHash} tells icons apart and that {@link IconHashIndex} finds what a linear search would. Many
+ * pairs of random icons are hashed; the pairs within {@link IconHashIndex#DEFAULT_MAX_DISTANCE} bits must be rare, and
+ * the pairs that are that close but clearly look different, by their masks or hues, must be rarer still. Icons that
+ * share both halves' masks and have nearly the same hues must hash as similar, and the hash must not depend on the
+ * size an icon is drawn at or on its circle. Hashing a generated icon's pixels must come close to hashing its spec at
+ * each size, and must barely notice a few changed pixels. Then an index of many random hashes is compared to a linear search, and
+ * most of those hashes must be novel when added. This only needs libGDX's native libraries, not a backend.
+ */
+public class IconHashTest {
+    /**
+     * How many pairs of random icons are compared.
+     */
+    private static final int PAIRS = 4000000;
+    /**
+     * The largest fraction of random pairs that may be within the default distance.
+     */
+    private static final double MAX_SIMILAR_RATE = 4e-6;
+    /**
+     * The largest fraction of random pairs that may be within the default distance while clearly looking different.
+     */
+    private static final double MAX_FALSE_POSITIVE_RATE = 5e-7;
+    /**
+     * Two icons clearly look different if the masks of their halves, drawn side by side at 72x72, differ by more than
+     * this much alpha per pixel on average, out of 1...
+     */
+    private static final double DIFFERENT_MASKS = 0.1;
+    /**
+     * ...or if their left tints or their backgrounds are more than this fraction of the color wheel apart in hue.
+     */
+    private static final double DIFFERENT_HUES = 0.25;
+    /**
+     * How many random hashes go into the index.
+     */
+    private static final int INDEXED = 100000;
+    /**
+     * The smallest fraction of those that must be novel when added.
+     */
+    private static final double MIN_NOVELTY = 0.9;
+    private static final int[] SIZES = {32, 72, 512};
+    /**
+     * The largest mean distance, at each of {@link #SIZES}, between the hash of a generated icon's pixels and the hash
+     * of its spec. At 72x72 the halves are copied exactly, so only rounding in the alpha mask is left; the other sizes
+     * also resample the halves. These are a little over what was measured: 2.96, 0.13 and 0.38 bits.
+     */
+    private static final double[] MAX_PIXEL_DISTANCE = {4.0, 0.5, 1.0};
+    /**
+     * The smallest fraction of generated icons, at each of {@link #SIZES}, whose pixel hash must be within
+     * {@link IconHashIndex#DEFAULT_MAX_DISTANCE} of their spec's hash. These were measured as 80%, 99.9% and 100%.
+     */
+    private static final double[] MIN_PIXEL_SIMILAR = {0.7, 0.98, 0.98};
+
+    private static double hue(int rgba) {
+        final int r = rgba >>> 24, g = rgba >>> 16 & 255, b = rgba >>> 8 & 255;
+        final int max = Math.max(r, Math.max(g, b)), d = max - Math.min(r, Math.min(g, b));
+        if (d == 0) return 0.0;
+        double h = max == r ? (g - b) / (double) d : max == g ? 2.0 + (b - r) / (double) d : 4.0 + (r - g) / (double) d;
+        h /= 6.0;
+        return h < 0.0 ? h + 1.0 : h;
+    }
+
+    private static double hueDistance(int a, int b) {
+        final double d = Math.abs(hue(a) - hue(b));
+        return Math.min(d, 1.0 - d);
+    }
+
+    /**
+     * Gets the average difference in alpha, from 0 to 1, between the halves of two icons as they are drawn side by
+     * side at full size.
+     */
+    private static double maskDistance(IconAtlas atlas, IconSpec a, IconSpec b) {
+        final byte[] mask = atlas.masks();
+        final int size = IconAtlas.ICON_SIZE, half = size / 2;
+        final int al = atlas.offset(a.leftIcon), bl = atlas.offset(b.leftIcon);
+        final int ar = atlas.offset(a.rightIcon), br = atlas.offset(b.rightIcon);
+        long total = 0L;
+        for (int y = 0, row = 0; y < size; y++, row += size) {
+            for (int x = 0; x < half; x++) {
+                total += Math.abs((mask[al + row + x] & 255) - (mask[bl + row + x] & 255));
+                total += Math.abs((mask[ar + row + half + x] & 255) - (mask[br + row + half + x] & 255));
+            }
+        }
+        return total / (255.0 * size * size);
+    }
+
+    @Test
+    public void hashTellsIconsApart() {
+        GdxNativesLoader.load();
+        final IconAtlas atlas = IconAtlas.get();
+        final int maxDistance = IconHashIndex.DEFAULT_MAX_DISTANCE;
+        int failures = 0;
+
+        // Random pairs: how often are they similar, and how often is that wrong?
+        Random random = new Random(0x1CE);
+        long totalDistance = 0L;
+        int similar = 0, falsePositives = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            final IconSpec a = Iconizer.describe(random.nextLong()), b = Iconizer.describe(random.nextLong());
+            final int distance = IconHash.distance(IconHash.hash(a), IconHash.hash(b));
+            totalDistance += distance;
+            if (distance <= maxDistance) {
+                similar++;
+                if (maskDistance(atlas, a, b) > DIFFERENT_MASKS || hueDistance(a.leftTint, b.leftTint) > DIFFERENT_HUES
+                        || hueDistance(a.background, b.background) > DIFFERENT_HUES) {
+                    falsePositives++;
+                    System.out.println("Looks different, but within " + maxDistance + " bits: " + a + " and " + b);
+                }
+            }
+        }
+        System.out.printf("Of %d random pairs, the mean distance is %.2f bits, %d are similar, and %d of those look different.%n",
+                PAIRS, totalDistance / (double) PAIRS, similar, falsePositives);
+        if (similar > MAX_SIMILAR_RATE * PAIRS) {
+            failures++;
+            System.out.println("Too many random pairs are similar.");
+        }
+        if (falsePositives > MAX_FALSE_POSITIVE_RATE * PAIRS) {
+            failures++;
+            System.out.println("Too many random pairs that look different are similar.");
+        }
+
+        // Icons with the same masks in both halves, and hues close together, must be similar.
+        final int split = IconNames.COUNT / 2;
+        int sameMasks = 0;
+        for (int i = 0; i < atlas.count; i++) {
+            for (int j = i + 1; j < atlas.count; j++) {
+                if ((i < split) != (j < split)) continue;
+                final IconSpec a = i < split ? new IconSpec(i, split, 0, 0, 0, 0) : new IconSpec(0, i, 0, 0, 0, 0);
+                final IconSpec b = i < split ? new IconSpec(j, split, 0, 0, 0, 0) : new IconSpec(0, j, 0, 0, 0, 0);
+                if (maskDistance(atlas, a, b) != 0.0) continue;
+                sameMasks++;
+                if (IconHash.hash(a) != IconHash.hash(b)) {
+                    failures++;
+                    System.out.println(IconNames.get(i) + " and " + IconNames.get(j) + " have the same mask, but not the same hash");
+                }
+            }
+        }
+        System.out.println(sameMasks + " pairs of icons have the same mask in the half they are drawn in.");
+        int closeHues = 0;
+        while (closeHues < 10000) {
+            final IconSpec a = Iconizer.describe(random.nextLong()), b = Iconizer.describe(random.nextLong());
+            if (hueDistance(a.leftTint, b.leftTint) > 1.0 / 32.0 || hueDistance(a.background, b.background) > 1.0 / 32.0)
+                continue;
+            closeHues++;
+            final IconSpec c = new IconSpec(a.leftIcon, a.rightIcon, b.background, b.circle, b.leftTint, b.rightTint);
+            if (IconHash.distance(IconHash.hash(a), IconHash.hash(c)) > 2) {
+                failures++;
+                System.out.println(a + " and " + c + " only differ by close hues, but are "
+                        + IconHash.distance(IconHash.hash(a), IconHash.hash(c)) + " bits apart");
+            }
+        }
+
+        // The hash only depends on the spec, and ignores the circle, so every size makes the same choices.
+        for (int i = 0; i < 1000; i++) {
+            final long seed = random.nextLong();
+            final IconSpec spec = Iconizer.describe(seed);
+            final IconSpec circled = new IconSpec(spec.leftIcon, spec.rightIcon, spec.background, ~spec.circle,
+                    spec.leftTint, spec.rightTint);
+            if (IconHash.hash(seed) != IconHash.hash(spec) || IconHash.hash(circled) != IconHash.hash(spec)) {
+                failures++;
+                System.out.println("The hash of seed " + seed + " depends on more than its halves and hues");
+            }
+        }
+        Iconizer iconizer = new Iconizer();
+        IconHashIndex[] bySize = new IconHashIndex[SIZES.length];
+        for (int s = 0; s < SIZES.length; s++) {
+            bySize[s] = new IconHashIndex();
+            for (int i = 0; i < 40; i++) {
+                // Repeating each seed makes the index reject it, so the next seed that isn't similar is drawn instead.
+                final Pixmap p = iconizer.generateDistinct(i >>> 1, SIZES[s], SIZES[s], bySize[s]);
+                if (p.getWidth() != SIZES[s] || p.getHeight() != SIZES[s]) {
+                    failures++;
+                    System.out.println("generateDistinct() made a " + p.getWidth() + "x" + p.getHeight() + " icon");
+                }
+                p.dispose();
+            }
+        }
+        iconizer.dispose();
+        for (int s = 1; s < SIZES.length; s++) {
+            boolean same = bySize[s].size() == bySize[0].size();
+            for (int i = 0; same && i < bySize[0].size(); i++) {
+                same = bySize[s].get(i) == bySize[0].get(i);
+            }
+            if (!same) {
+                failures++;
+                System.out.println("generateDistinct() chose different icons at " + SIZES[s] + " and " + SIZES[0]);
+            }
+        }
+
+        // The hash of an icon's pixels must be close to the hash of its spec, and must not change much when a few of
+        // those pixels are changed, but must still tell unrelated icons apart.
+        final IconCompositor compositor = new IconCompositor(atlas);
+        iconizer = new Iconizer();
+        long pixelNanos = 0L;
+        int pixelHashes = 0;
+        for (int s = 0; s < SIZES.length; s++) {
+            final int size = SIZES[s];
+            long total = 0L, unrelated = 0L, edited = 0L;
+            int similarPixels = 0;
+            long previous = 0L;
+            for (int i = 0; i < 200; i++) {
+                final long seed = random.nextLong();
+                final int[] pixels = compositor.generate(size, size, seed);
+                final long start = System.nanoTime();
+                final long hash = IconHash.hash(pixels, size, size);
+                pixelNanos += System.nanoTime() - start;
+                pixelHashes++;
+                final int distance = IconHash.distance(hash, IconHash.hash(seed));
+                total += distance;
+                if (distance <= maxDistance) similarPixels++;
+                if (i > 0) unrelated += IconHash.distance(hash, previous);
+                previous = hash;
+                for (int e = pixels.length >>> 7; e > 0; e--) {
+                    pixels[random.nextInt(pixels.length)] = random.nextInt() | 255;
+                }
+                edited += IconHash.distance(hash, IconHash.hash(pixels, size, size));
+                if (i < 10) {
+                    final Pixmap p = iconizer.generate(size, size, seed);
+                    final long pixmapHash = IconHash.hash(p);
+                    p.dispose();
+                    if (pixmapHash != IconHash.hash(compositor.generate(size, size, seed), size, size)) {
+                        failures++;
+                        System.out.println("The hash of a Pixmap of seed " + seed + " at " + size
+                                + " isn't the hash of its pixels");
+                    }
+                }
+            }
+            System.out.printf("At %dx%d, pixel hashes are %.2f bits from spec hashes (%.1f%% within %d), %.2f bits from"
+                            + " themselves after editing 1/128 of the pixels, and %.2f bits from unrelated icons.%n",
+                    size, size, total / 200.0, similarPixels / 2.0, maxDistance, edited / 200.0, unrelated / 199.0);
+            if (total / 200.0 > MAX_PIXEL_DISTANCE[s] || similarPixels < MIN_PIXEL_SIMILAR[s] * 200) {
+                failures++;
+                System.out.println("Pixel hashes at " + size + "x" + size + " are too far from spec hashes.");
+            }
+            if (edited / 200.0 > maxDistance) {
+                failures++;
+                System.out.println("Editing a few pixels at " + size + "x" + size + " changes the hash too much.");
+            }
+            if (unrelated / 199.0 < 4 * maxDistance) {
+                failures++;
+                System.out.println("Pixel hashes of unrelated icons at " + size + "x" + size + " are too close.");
+            }
+        }
+        iconizer.dispose();
+        System.out.printf("A pixel hash takes %.2f microseconds on average.%n", pixelNanos / (double) pixelHashes / 1000.0);
+        final int[][] bad = {{0, 2, 2}, {3, 2, 2}, {2, 1, 2}, {0, 2, 0}};
+        for (int[] b : bad) {
+            try {
+                IconHash.hash(new int[b[0]], b[1], b[2]);
+                failures++;
+                System.out.println("hash() accepted " + b[0] + " pixels for a " + b[1] + "x" + b[2] + " icon");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+
+        // The index must agree with a linear search, and most random icons must be novel.
+        IconHashIndex index = new IconHashIndex();
+        final long[] hashes = new long[INDEXED];
+        int novel = 0;
+        for (int i = 0; i < INDEXED; i++) {
+            hashes[i] = IconHash.hash(random.nextLong());
+            if (!index.containsSimilar(hashes[i])) novel++;
+            index.add(hashes[i]);
+        }
+        System.out.printf("%.2f%% of %d random icons were novel when added.%n", novel * 100.0 / INDEXED, INDEXED);
+        if (novel < MIN_NOVELTY * INDEXED) {
+            failures++;
+            System.out.println("Too few random icons were novel.");
+        }
+        long nanos = 0L;
+        for (int q = 0; q < 4000; q++) {
+            // Half the queries are stored hashes with a few bits flipped, so there is something nearby to find.
+            long query = random.nextLong();
+            if ((q & 1) == 0) {
+                query = hashes[random.nextInt(INDEXED)];
+                for (int f = random.nextInt(maxDistance + 3); f > 0; f--) {
+                    query ^= 1L << random.nextInt(64);
+                }
+            }
+            for (int distance = 0; distance <= maxDistance; distance++) {
+                final long start = System.nanoTime();
+                final int found = index.findWithin(query, distance);
+                nanos += System.nanoTime() - start;
+                boolean expected = false;
+                for (int i = 0; i < INDEXED && !expected; i++) {
+                    expected = IconHash.distance(hashes[i], query) <= distance;
+                }
+                if (found == -1 ? expected : IconHash.distance(index.get(found), query) > distance) {
+                    failures++;
+                    System.out.println("findWithin(" + query + ", " + distance + ") returned " + found);
+                }
+            }
+        }
+        System.out.printf("A query takes %.2f microseconds on average.%n", nanos / (4000.0 * (maxDistance + 1)) / 1000.0);
+
+        assertEquals("failures", 0, failures);
+    }
+}
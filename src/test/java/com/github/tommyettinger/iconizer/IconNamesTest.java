@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the packed name table for all {@link IconNames#COUNT} icons: each name must match its line in
+ * {@code src/tools/icon-names.txt}, {@link IconNames#indexOf(String)} must give back the same id for it, and the PNG
+ * with that name must have the same alpha as the {@link IconAtlas} icon with that id, so the names and the atlas can't
+ * drift apart. The deprecated {@link Iconizer#regions()} must match them too. Those files are read relative to the
+ * working directory, which Gradle sets to the project root. This only needs libGDX's native libraries, not a backend.
+ */
+public class IconNamesTest {
+    @Test
+    public void namesMatchAtlas() {
+        GdxNativesLoader.load();
+        final FileHandle root = new FileHandle(new File("."));
+        final String[] listed = root.child("src/tools/icon-names.txt").readString("UTF-8").split("\r?\n");
+        final FileHandle icons = root.child("src/main/resources/icons");
+        final IconAtlas atlas = IconAtlas.get();
+        final HashSet<String> seen = new HashSet<>(IconNames.COUNT);
+        int failures = 0;
+        if (listed.length != IconNames.COUNT) {
+            failures++;
+            System.out.println("The names file has " + listed.length + " names instead of " + IconNames.COUNT);
+        }
+        for (int id = 0; id < IconNames.COUNT; id++) {
+            final String name = IconNames.get(id);
+            if (id < listed.length && !name.equals(listed[id])) {
+                failures++;
+                System.out.println("Name " + id + " is \"" + name + "\" instead of \"" + listed[id] + "\"");
+            }
+            if (!seen.add(name)) {
+                failures++;
+                System.out.println("Name " + id + ", \"" + name + "\", is repeated");
+            }
+            if (IconNames.indexOf(name) != id) {
+                failures++;
+                System.out.println("indexOf(\"" + name + "\") is " + IconNames.indexOf(name) + " instead of " + id);
+            }
+            if (IconNames.get(id) != name) {
+                failures++;
+                System.out.println("Name " + id + " wasn't kept after it was decoded");
+            }
+            Pixmap png = new Pixmap(icons.child(name));
+            search:
+            for (int y = 0; y < IconAtlas.ICON_SIZE; y++) {
+                for (int x = 0; x < IconAtlas.ICON_SIZE; x++) {
+                    if ((png.getPixel(x, y) & 255) != atlas.alpha(id, x, y)) {
+                        failures++;
+                        System.out.println("Icon " + id + ", \"" + name + "\", differs from its PNG at " + x + "," + y);
+                        break search;
+                    }
+                }
+            }
+            png.dispose();
+        }
+        // The deprecated regions() must still give the same names, in the same order, as the old field did.
+        @SuppressWarnings("deprecation") final String[] regions = Iconizer.regions();
+        @SuppressWarnings("deprecation") final boolean sameArray = regions == Iconizer.regions();
+        if (regions.length != IconNames.COUNT || !sameArray) {
+            failures++;
+            System.out.println("regions() has " + regions.length + " names, or isn't the same array every time");
+        }
+        for (int id = 0; id < regions.length && id < listed.length; id++) {
+            if (!regions[id].equals(listed[id])) {
+                failures++;
+                System.out.println("regions()[" + id + "] is \"" + regions[id] + "\" instead of \"" + listed[id] + "\"");
+                break;
+            }
+        }
+        if (IconNames.indexOf("not an icon.png") != -1) {
+            failures++;
+            System.out.println("indexOf() found a name that isn't an icon");
+        }
+        assertEquals("failures", 0, failures);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that PNGs written by {@link IconPng} decode to exactly the pixels they were written from, both as indexed and
+ * as RGBA PNGs, and compares their size and speed to {@link PixmapIO.PNG} at compression level 9, which is what
+ * BasicOutputDemo used before. This only needs libGDX's native libraries, not a backend.
+ */
+public class IconPngTest {
+    @Test
+    public void pngsRoundTrip() {
+        GdxNativesLoader.load();
+        Iconizer iconizer = new Iconizer();
+        IconPng png = new IconPng();
+        PixmapIO.PNG old = new PixmapIO.PNG();
+        old.setCompression(9);
+        old.setFlipY(false);
+        int failures = 0;
+        try {
+            for (int size : new int[]{32, 72, 128, 512}) {
+                int count = size >= 512 ? 10 : 100, indexed = 0;
+                long oldBytes = 0L, newBytes = 0L, oldNanos = 0L, newNanos = 0L;
+                for (int i = 0; i < count; i++) {
+                    Pixmap icon = iconizer.generate(size, size, Iconizer.scramble(i));
+                    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                    long start = System.nanoTime();
+                    old.write(stream, icon);
+                    long middle = System.nanoTime();
+                    byte[] bytes = png.encode(icon);
+                    long end = System.nanoTime();
+                    oldNanos += middle - start;
+                    newNanos += end - middle;
+                    oldBytes += stream.size();
+                    newBytes += bytes.length;
+                    if (png.wasIndexed()) indexed++;
+                    Pixmap decoded = new Pixmap(bytes, 0, bytes.length);
+                    search:
+                    for (int y = 0; y < size; y++) {
+                        for (int x = 0; x < size; x++) {
+                            if (decoded.getPixel(x, y) != icon.getPixel(x, y)) {
+                                failures++;
+                                System.out.println("Mismatch at " + size + "x" + size + " with seed " + i);
+                                break search;
+                            }
+                        }
+                    }
+                    decoded.dispose();
+                    icon.dispose();
+                }
+                System.out.printf("%dx%d: PixmapIO %d bytes in %.0f us, IconPng %d bytes in %.0f us, %d of %d indexed%n",
+                        size, size, oldBytes / count, oldNanos * 1e-3 / count, newBytes / count, newNanos * 1e-3 / count,
+                        indexed, count);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            failures++;
+        }
+        old.dispose();
+        png.dispose();
+        iconizer.dispose();
+        assertEquals("mismatches", 0, failures);
+    }
+}
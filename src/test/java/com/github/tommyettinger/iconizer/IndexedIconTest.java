@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.iconizer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link IndexedIcon} gives back exactly the pixels it was made from, that equal icons are equal as
+ * IndexedIcons, and reports how much memory it saves compared to RGBA8888 at several sizes. This needs no libGDX
+ * backend.
+ */
+public class IndexedIconTest {
+    @Test
+    public void indexedIconsRoundTrip() {
+        IconCompositor compositor = new IconCompositor();
+        int failures = 0;
+        for (int size : new int[]{32, 48, 72, 128, 512}) {
+            int count = size >= 512 ? 20 : 200;
+            long rgbaBytes = 0L, indexedBytes = 0L, escaped = 0L;
+            for (int i = 0; i < count; i++) {
+                long seed = Iconizer.scramble(i);
+                int[] expected = compositor.generate(size, size, seed);
+                IndexedIcon icon = compositor.generateIndexed(size, size, seed);
+                if (!Arrays.equals(expected, icon.toRgba())
+                        || !icon.equals(IndexedIcon.of(expected, size, size))
+                        || icon.hashCode() != IndexedIcon.of(expected, size, size).hashCode()) {
+                    failures++;
+                    System.out.println("Mismatch at " + size + "x" + size + " with seed " + seed);
+                }
+                for (int y = 0; y < size; y += 7) {
+                    for (int x = 0; x < size; x += 3) {
+                        if (icon.getPixel(x, y) != expected[y * size + x]) {
+                            failures++;
+                            System.out.println("getPixel() mismatch at " + size + "x" + size + " with seed " + seed);
+                            y = size;
+                            break;
+                        }
+                    }
+                }
+                escaped += icon.getEscapedCount();
+                rgbaBytes += expected.length * 4L;
+                indexedBytes += icon.getMemoryBytes();
+            }
+            System.out.printf("%dx%d: %.1f%% of the RGBA memory, with %.2f%% of pixels escaped%n",
+                    size, size, indexedBytes * 100.0 / rgbaBytes, escaped * 400.0 / rgbaBytes);
+        }
+        if (compositor.generateIndexed(72, 72, 1L).equals(compositor.generateIndexed(72, 72, 2L))) {
+            failures++;
+            System.out.println("Different icons were equal.");
+        }
+        assertEquals("failures", 0, failures);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.iconizer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the {@link BlendKernel} picked by {@link BlendKernel#get()} draws exactly the same pixels as
+ * {@link BlendKernel#SCALAR}, at many sizes and for many seeds. This needs no libGDX backend. When Gradle runs on JDK 17
+ * or newer, the tests run with the iconizer-gdx-vector module and {@code --add-modules jdk.incubator.vector}, so this
+ * checks the vector kernel; otherwise, both kernels are the scalar one.
+ */
+public class KernelTest {
+    @Test
+    public void kernelsMatch() {
+        IconAtlas atlas = IconAtlas.get();
+        BlendKernel best = BlendKernel.get();
+        IconCompositor scalar = new IconCompositor(atlas, BlendKernel.SCALAR);
+        IconCompositor other = new IconCompositor(atlas, best);
+        int[][] sizes = {{16, 16}, {32, 32}, {33, 40}, {71, 73}, {96, 96}, {100, 60}, {128, 128}, {512, 512}, {1024, 1024}};
+        long checked = 0L, failures = 0L;
+        for (int[] size : sizes) {
+            int w = size[0], h = size[1];
+            int[] expected = new int[w * h], actual = new int[w * h];
+            int seeds = Math.max(8, 200000 / (w * h) * 4);
+            for (long s = 0; s < seeds; s++) {
+                long seed = s * 0x9E3779B97F4A7C15L;
+                scalar.generateInto(expected, w, h, seed);
+                other.generateInto(actual, w, h, seed);
+                checked++;
+                if (!Arrays.equals(expected, actual)) {
+                    failures++;
+                    if (failures <= 5) System.out.println("Mismatch at " + w + "x" + h + " with seed " + seed);
+                }
+            }
+        }
+        System.out.println("Checked " + checked + " icons with the " + best.name() + " kernel, with " + failures + " mismatches.");
+        assertEquals("mismatches", 0L, failures);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link IconMetrics} counts each stage, icon, allocation, and cache lookup once, and nothing while it is
+ * disabled, then prints a snapshot and how much time the disabled and enabled metrics add to generating a 72x72 icon.
+ * This only needs libGDX's native libraries, not a backend.
+ */
+public class MetricsTest {
+    private int failures = 0;
+
+    private void expect(String what, long actual, long expected) {
+        if (actual != expected) {
+            failures++;
+            System.out.println(what + " was " + actual + ", but should be " + expected);
+        }
+    }
+
+    @Test
+    public void countsEachStage() {
+        GdxNativesLoader.load();
+        Iconizer iconizer = new Iconizer();
+        IconCompositor compositor = new IconCompositor();
+        IconCache cache = new IconCache(iconizer, 1L << 20);
+        IconPng png = new IconPng();
+
+        IconMetrics.setEnabled(false);
+        IconMetrics.reset();
+        iconizer.generate(72, 72, 1L).dispose();
+        compositor.generate(72, 72, 1L);
+        expect("Icons while disabled", IconMetrics.snapshot().getIconCount(), 0L);
+
+        IconMetrics.setEnabled(true);
+        for (int i = 0; i < 10; i++) {
+            iconizer.generate(72, 72, i).dispose();
+            compositor.generate(48, 48, i);
+        }
+        cache.generate(64, 64, 5L).dispose();
+        Pixmap cached = cache.generate(64, 64, 5L);
+        png.encode(cached);
+        cached.dispose();
+        IconMetrics.Snapshot s = IconMetrics.snapshot();
+        IconMetrics.setEnabled(false);
+
+        // The cache miss generates one more icon with the Iconizer.
+        expect("TINT count", s.getCount(IconMetrics.Stage.TINT), 11L);
+        expect("BACKGROUND count", s.getCount(IconMetrics.Stage.BACKGROUND), 21L);
+        expect("DRAW count", s.getCount(IconMetrics.Stage.DRAW), 21L);
+        expect("GENERATE count", s.getCount(IconMetrics.Stage.GENERATE), 21L);
+        expect("ENCODE count", s.getCount(IconMetrics.Stage.ENCODE), 1L);
+        expect("Icons", s.getIconCount(), 21L);
+        expect("Cache hits", s.getCacheHits(), 1L);
+        expect("Cache misses", s.getCacheMisses(), 1L);
+        expect("Native bytes", s.getNativeBytes(), 10L * 72 * 72 * 4 + 3L * 64 * 64 * 4);
+        expect("Heap bytes", s.getHeapBytes(), 10L * 48 * 48 * 4);
+        if (s.getPercentileNanos(IconMetrics.Stage.GENERATE, 50) > s.getMaxNanos(IconMetrics.Stage.GENERATE)
+                || s.getTotalNanos(IconMetrics.Stage.GENERATE) < s.getMaxNanos(IconMetrics.Stage.GENERATE)) {
+            failures++;
+            System.out.println("The GENERATE histogram is inconsistent.");
+        }
+        System.out.println(s);
+        System.out.println();
+
+        final int[] pixels = new int[72 * 72];
+        for (int round = 0; round < 3; round++) {
+            for (int enabled = 0; enabled < 2; enabled++) {
+                IconMetrics.setEnabled(enabled == 1);
+                long sink = 0L, start = System.nanoTime();
+                for (int i = 0; i < 20000; i++) {
+                    sink += compositor.generateInto(pixels, 72, 72, i)[i % pixels.length];
+                }
+                long nanos = System.nanoTime() - start;
+                if (round == 2)
+                    System.out.printf("72x72 with metrics %s: %.2f us per icon (%d)%n",
+                            enabled == 1 ? "enabled" : "disabled", nanos / 20000.0 / 1000.0, sink & 1);
+            }
+        }
+        IconMetrics.setEnabled(false);
+
+        png.dispose();
+        cache.dispose();
+        iconizer.dispose();
+        assertEquals("failures", 0, failures);
+    }
+}
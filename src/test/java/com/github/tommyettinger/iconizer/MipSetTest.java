@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that every Pixmap from {@link Iconizer#generateMipSet(long, int...)} is byte-identical to what
+ * {@link Iconizer#generate(int, int, long)} makes for the same seed and size, over the Android and iOS launcher sizes
+ * plus some odd ones, and that the sizes come back in the order they were given. This only needs libGDX's native
+ * libraries, not a backend.
+ */
+public class MipSetTest {
+    private static final int[] SIZES = {48, 72, 96, 144, 192, 512, 20, 29, 40, 58, 60, 76, 80, 87, 120, 152, 167,
+            180, 1024, 1, 2, 33, 72};
+
+    @Test
+    public void mipSetsMatchGenerate() {
+        GdxNativesLoader.load();
+        Iconizer iconizer = new Iconizer();
+        int failures = 0;
+        for (int s = 0; s < 24; s++) {
+            final long seed = s < 8 ? s - 4 : Iconizer.scramble(s);
+            Pixmap[] mips = iconizer.generateMipSet(seed, SIZES);
+            if (mips.length != SIZES.length) {
+                failures++;
+                System.out.println("Seed " + seed + " gave " + mips.length + " sizes instead of " + SIZES.length);
+            }
+            for (int i = 0; i < mips.length; i++) {
+                final int size = SIZES[i];
+                Pixmap expected = iconizer.generate(size, size, seed);
+                ByteBuffer a = expected.getPixels(), b = mips[i].getPixels();
+                if (mips[i].getWidth() != size || mips[i].getHeight() != size || a.limit() != b.limit()) {
+                    failures++;
+                    System.out.println("Seed " + seed + " at index " + i + " isn't " + size + "x" + size);
+                } else {
+                    for (int p = 0; p < a.limit(); p++) {
+                        if (a.get(p) != b.get(p)) {
+                            failures++;
+                            System.out.println("Seed " + seed + " at " + size + "x" + size + " differs at byte " + p);
+                            break;
+                        }
+                    }
+                }
+                expected.dispose();
+                mips[i].dispose();
+            }
+        }
+        if (iconizer.generateMipSet(1L).length != 0) {
+            failures++;
+            System.out.println("A mip set with no sizes wasn't empty.");
+        }
+        iconizer.dispose();
+        assertEquals("failures", 0, failures);
+    }
+}
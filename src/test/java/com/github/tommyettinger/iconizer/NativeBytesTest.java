@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link Iconizer#getNativeBytes()} follows every source Pixmap that is obtained, freed back to the pool,
+ * discarded because the pool is full, and disposed, that a failed {@link Iconizer#generateInto(Pixmap, long)} still
+ * returns its sources to the pool, and that the count returns to 0 after {@link Iconizer#dispose()}. This only needs
+ * libGDX's native libraries, not a backend.
+ */
+public class NativeBytesTest {
+    private static final long SOURCE = IconAtlas.ICON_SIZE * IconAtlas.ICON_SIZE * 4L;
+    private int failures = 0;
+
+    private void expect(String what, long actual, long expected) {
+        if (actual != expected) {
+            failures++;
+            System.out.println(what + " was " + actual + ", but should be " + expected);
+        }
+    }
+
+    @Test
+    public void tracksNativeBytes() {
+        GdxNativesLoader.load();
+        Iconizer iconizer = new Iconizer();
+        expect("Native bytes when new", iconizer.getNativeBytes(), 0L);
+
+        iconizer.generate(72, 72, 1L).dispose();
+        expect("Native bytes after one icon", iconizer.getNativeBytes(), 2 * SOURCE);
+        for (int i = 0; i < 100; i++) {
+            iconizer.generate(48, 48, i).dispose();
+        }
+        expect("Native bytes after reusing the pool", iconizer.getNativeBytes(), 2 * SOURCE);
+        Pixmap[] mips = iconizer.generateMipSet(5L, 16, 72, 128);
+        for (Pixmap p : mips) p.dispose();
+        expect("Native bytes after a mip set", iconizer.getNativeBytes(), 2 * SOURCE);
+
+        try {
+            iconizer.generateInto((Pixmap) null, 3L);
+            failures++;
+            System.out.println("generateInto(null, seed) should have thrown.");
+        } catch (NullPointerException expected) {
+        }
+        iconizer.generate(72, 72, 3L).dispose();
+        expect("Native bytes after a failed generateInto", iconizer.getNativeBytes(), 2 * SOURCE);
+
+        final int extra = Iconizer.MAX_POOLED_SOURCES + 2;
+        Pixmap[] held = new Pixmap[extra];
+        for (int i = 0; i < extra; i++) {
+            held[i] = iconizer.sources.obtain();
+        }
+        expect("Native bytes while holding " + extra + " sources", iconizer.getNativeBytes(), extra * SOURCE);
+        for (int i = 0; i < extra; i++) {
+            iconizer.sources.free(held[i]);
+        }
+        expect("Disposed sources past the pool limit",
+                (held[extra - 1].isDisposed() ? 1 : 0) + (held[extra - 2].isDisposed() ? 1 : 0), 2L);
+        expect("Native bytes after discarding extras", iconizer.getNativeBytes(), Iconizer.MAX_POOLED_SOURCES * SOURCE);
+
+        iconizer.dispose();
+        expect("Native bytes after dispose", iconizer.getNativeBytes(), 0L);
+        for (int i = 0; i < Iconizer.MAX_POOLED_SOURCES; i++) {
+            expect("Pooled source " + i + " disposed", held[i].isDisposed() ? 1 : 0, 1L);
+        }
+
+        iconizer.generate(72, 72, 2L).dispose();
+        expect("Native bytes after reuse", iconizer.getNativeBytes(), 2 * SOURCE);
+        iconizer.dispose();
+        expect("Native bytes after a second dispose", iconizer.getNativeBytes(), 0L);
+
+        assertEquals("failures", 0, failures);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.iconizer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the bulk and primitive scramble methods in {@link Iconizer} agree with the one-at-a-time and Object
+ * versions: bulk scrambling must match {@link Iconizer#scramble(long)} for every offset, including overlapping ranges
+ * in one array, and hashing CharSequences must match hashing the same Strings as Objects. It also checks that the
+ * 64-bit {@link Iconizer#hashAll(Object...)} tells apart Strings that {@link String#hashCode()} doesn't, and that
+ * {@link Iconizer#hash64(byte[])} has no collisions among many short, similar inputs. This needs no libGDX backend.
+ */
+public class ScrambleTest {
+    @Test
+    public void variantsAgree() {
+        int failures = 0;
+        final long[] seeds = new long[1000];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = Iconizer.scramble(i) >> (i & 63);
+        }
+        final long[] expected = new long[seeds.length];
+        for (int i = 0; i < seeds.length; i++) {
+            expected[i] = Iconizer.scramble(seeds[i]);
+        }
+        if (!Arrays.equals(expected, Iconizer.scrambleBulk(seeds, new long[seeds.length]))) {
+            failures++;
+            System.out.println("scrambleBulk(long[], long[]) mismatch.");
+        }
+        for (int shift = -7; shift <= 7; shift++) {
+            // Scrambles 900 longs within one array, from index 50 to index 50 + shift, so the ranges overlap.
+            final long[] same = seeds.clone();
+            Iconizer.scrambleBulk(same, 50, same, 50 + shift, 900);
+            for (int i = 0; i < 900; i++) {
+                if (same[50 + shift + i] != expected[50 + i]) {
+                    failures++;
+                    System.out.println("Overlapping scramble mismatch with shift " + shift + " at " + i);
+                    break;
+                }
+            }
+        }
+
+        final String[] strings = {"My Cool Game", "com.example.cool", "", null, "été"};
+        for (String s : strings) {
+            if (Iconizer.scrambleChars(s) != Iconizer.scramble(s)
+                    || (s != null && Iconizer.scrambleChars(new StringBuilder(s)) != Iconizer.scramble(s))) {
+                failures++;
+                System.out.println("scrambleChars(CharSequence) mismatch for " + s);
+            }
+        }
+        final CharSequence[] builders = new CharSequence[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            builders[i] = strings[i] == null ? null : new StringBuilder(strings[i]);
+        }
+        if (Iconizer.scrambleAllChars(strings) != Iconizer.scrambleAll((Object[]) strings)
+                || Iconizer.scrambleAllChars(builders) != Iconizer.scrambleAll((Object[]) strings)) {
+            failures++;
+            System.out.println("scrambleAllChars(CharSequence...) mismatch.");
+        }
+        // A StringBuilder passed to scramble() or scrambleAll() must still be hashed by its identity, as it always was.
+        final StringBuilder builder = new StringBuilder("My Cool Game");
+        long byIdentity = 0L;
+        for (CharSequence b : builders) {
+            byIdentity = Iconizer.scramble(System.identityHashCode(b) + byIdentity);
+        }
+        if (Iconizer.scramble(builder) != Iconizer.scramble(System.identityHashCode(builder))
+                || Iconizer.scrambleAll((Object[]) builders) != byIdentity
+                || Iconizer.scrambleAll(builder) != Iconizer.scramble(System.identityHashCode(builder) + 0L)) {
+            failures++;
+            System.out.println("scramble(Object) or scrambleAll(Object...) didn't hash a StringBuilder by identity.");
+        }
+        // The first long in each pair only differs from the other in its upper 32 bits.
+        if (Iconizer.scrambleLongs(new long[]{1L, 2L}) == Iconizer.scrambleLongs(new long[]{1L | 1L << 40, 2L})
+                || Iconizer.scrambleLongs(new long[0]) != 0L || Iconizer.scrambleLongs(null) != 0L) {
+            failures++;
+            System.out.println("scrambleLongs(long[]) ignored high bits or mishandled an empty array.");
+        }
+        // Two arrays must still go to scramble(Object, Object), as they did before the bulk variants existed.
+        final long[] first = {1L}, second = {2L};
+        if (Iconizer.scramble(first, second) != Iconizer.scramble((Object) first, (Object) second)) {
+            failures++;
+            System.out.println("scramble(long[], long[]) went to the wrong overload.");
+        }
+        // "Aa" and "BB" have the same String.hashCode(), so scrambleAll() can't tell them apart, but hashAll() can.
+        if (Iconizer.scrambleAll("Aa", "x") != Iconizer.scrambleAll("BB", "x")
+                || Iconizer.hashAll("Aa", "x") == Iconizer.hashAll("BB", "x")
+                || Iconizer.hashAll("My Cool Game") != Iconizer.hashAll(new StringBuilder("My Cool Game"))
+                || Iconizer.hashAll("a") == Iconizer.hashAll("a\0")
+                || Iconizer.hashAll(1L << 40) == Iconizer.hashAll(1L)
+                || Iconizer.hashAll(5) != Iconizer.hashAll(5L)) {
+            failures++;
+            System.out.println("hashAll(Object...) mismatch.");
+        }
+        // Long Strings are copied into a buffer in blocks, and must hash the same as any other CharSequence.
+        final StringBuilder longName = new StringBuilder(600);
+        for (int length = 0; length <= 600; length++) {
+            final String name = longName.toString();
+            if (Iconizer.hash64(name) != Iconizer.hash64(longName)) {
+                failures++;
+                System.out.println("hash64(String) and hash64(StringBuilder) differ at length " + length);
+                break;
+            }
+            longName.append((char) (length * 0x9E37 >>> 3));
+        }
+        // Many short, similar byte arrays (every length from 0 to 17, with one or two nonzero bytes) and every String
+        // of 1 to 9 chars from "ab" must all hash differently.
+        final HashSet<String> distinctBytes = new HashSet<>();
+        final HashSet<Long> byteHashes = new HashSet<>();
+        for (int length = 0; length <= 17; length++) {
+            for (int a = 0; a < length; a++) {
+                for (int b = a; b < length; b++) {
+                    for (int v = 1; v < 256; v += 17) {
+                        final byte[] bytes = new byte[length];
+                        bytes[a] = (byte) v;
+                        bytes[b] += (byte) (3 * v);
+                        final byte[] padded = new byte[length + 5];
+                        System.arraycopy(bytes, 0, padded, 3, length);
+                        if (Iconizer.hash64(bytes) != Iconizer.hash64(padded, 3, length)) {
+                            failures++;
+                            System.out.println("hash64(byte[], int, int) mismatch.");
+                        }
+                        distinctBytes.add(Arrays.toString(bytes));
+                        byteHashes.add(Iconizer.hash64(bytes));
+                    }
+                }
+            }
+        }
+        distinctBytes.add("[]");
+        byteHashes.add(Iconizer.hash64(new byte[0]));
+        final HashSet<String> distinctStrings = new HashSet<>();
+        final HashSet<Long> stringHashes = new HashSet<>();
+        for (int length = 1; length <= 9; length++) {
+            for (int bits = 0; bits < 1 << length; bits++) {
+                final StringBuilder sb = new StringBuilder(length);
+                for (int i = 0; i < length; i++) {
+                    sb.append((bits >>> i & 1) == 0 ? 'a' : 'b');
+                }
+                distinctStrings.add(sb.toString());
+                stringHashes.add(Iconizer.hash64(sb));
+            }
+        }
+        if (byteHashes.size() != distinctBytes.size() || stringHashes.size() != distinctStrings.size()) {
+            failures++;
+            System.out.println("hash64() had " + (distinctBytes.size() - byteHashes.size()) + " byte[] collisions and "
+                    + (distinctStrings.size() - stringHashes.size()) + " CharSequence collisions.");
+        }
+        assertEquals("failures", 0, failures);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link Iconizer#describe(long)} captures everything about an icon: each icon is drawn again using only
+ * its {@link IconSpec} and the {@link IconAtlas}, and must be byte-identical to {@link Iconizer#generate(int, int, long)}
+ * at several sizes, so equal IconSpecs always mean equal pixels. Then {@link SpecIndex} is checked against a HashMap
+ * of IconSpecs over many seeds. This only needs libGDX's native libraries, not a backend.
+ */
+public class SpecTest {
+    private static final int[] SIZES = {72, 48, 129};
+
+    /**
+     * Draws an icon the same way Iconizer does, but using nothing except the spec.
+     */
+    private static Pixmap render(IconSpec spec, int width, int height, IconAtlas atlas, Pixmap l, Pixmap m) {
+        Pixmap o = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        o.setBlending(Pixmap.Blending.SourceOver);
+        o.setFilter(Pixmap.Filter.BiLinear);
+        o.setColor(spec.background);
+        o.fill();
+        o.setColor(spec.circle);
+        o.fillCircle(width / 2, height / 2, width / 4);
+        atlas.tintInto(spec.leftIcon, spec.leftTint, l);
+        atlas.tintInto(spec.rightIcon, spec.rightTint, m);
+        final int full = IconAtlas.ICON_SIZE, hf = full / 2;
+        o.drawPixmap(l, 0, 0, hf, full, 0, 0, width / 2, height);
+        o.drawPixmap(m, hf, 0, full, full, width / 2, 0, width, height);
+        return o;
+    }
+
+    @Test
+    public void specsDescribeIcons() {
+        GdxNativesLoader.load();
+        Iconizer iconizer = new Iconizer();
+        IconAtlas atlas = IconAtlas.get();
+        Pixmap l = new Pixmap(IconAtlas.ICON_SIZE, IconAtlas.ICON_SIZE, Pixmap.Format.RGBA8888);
+        Pixmap m = new Pixmap(IconAtlas.ICON_SIZE, IconAtlas.ICON_SIZE, Pixmap.Format.RGBA8888);
+        l.setBlending(Pixmap.Blending.None);
+        m.setBlending(Pixmap.Blending.None);
+        int failures = 0;
+
+        for (int s = 0; s < 300; s++) {
+            final long seed = s < 20 ? s - 10 : Iconizer.scramble(s) * s;
+            final IconSpec spec = Iconizer.describe(seed);
+            if (!spec.equals(Iconizer.describe(seed)) || spec.hashCode() != Iconizer.describe(seed).hashCode()) {
+                failures++;
+                System.out.println("describe(" + seed + ") isn't consistent with itself");
+            }
+            if (!spec.leftName().equals(IconNames.get(spec.leftIcon))
+                    || !spec.rightName().equals(IconNames.get(spec.rightIcon))) {
+                failures++;
+                System.out.println("The names in " + spec + " don't match its ids");
+            }
+            for (int size : SIZES) {
+                Pixmap expected = iconizer.generate(size, size, seed), actual = render(spec, size, size, atlas, l, m);
+                ByteBuffer a = expected.getPixels(), b = actual.getPixels();
+                for (int p = 0; p < a.limit(); p++) {
+                    if (a.get(p) != b.get(p)) {
+                        failures++;
+                        System.out.println("Seed " + seed + " at " + size + "x" + size
+                                + " drawn from " + spec + " differs at byte " + p);
+                        break;
+                    }
+                }
+                expected.dispose();
+                actual.dispose();
+            }
+        }
+
+        // The first seed added for each spec, as a SpecIndex should remember it.
+        final int count = 200000;
+        HashMap<IconSpec, Long> firstSeeds = new HashMap<>(count * 2);
+        SpecIndex index = new SpecIndex(16);
+        for (int i = 0; i < count; i++) {
+            // Every fourth seed repeats an earlier one, so there are duplicates to find.
+            final long seed = (i & 3) == 3 ? Iconizer.scramble(i >>> 3) : Iconizer.scramble(i);
+            final IconSpec spec = Iconizer.describe(seed);
+            final boolean isNew = !firstSeeds.containsKey(spec);
+            if (isNew) firstSeeds.put(spec, seed);
+            if (index.add(seed) != isNew) {
+                failures++;
+                System.out.println("SpecIndex.add(" + seed + ") returned " + !isNew);
+            }
+            if (!index.contains(seed) || index.findSeed(seed, ~seed) != firstSeeds.get(spec)) {
+                failures++;
+                System.out.println("SpecIndex lost seed " + seed);
+            }
+        }
+        if (index.size() != firstSeeds.size()) {
+            failures++;
+            System.out.println("SpecIndex has " + index.size() + " icons instead of " + firstSeeds.size());
+        }
+        for (long seed = -1000; seed < 0; seed++) {
+            if (index.contains(seed) != firstSeeds.containsKey(Iconizer.describe(seed))) {
+                failures++;
+                System.out.println("SpecIndex.contains(" + seed + ") disagrees with describe()");
+            }
+        }
+        index.clear();
+        if (index.size() != 0 || index.contains(Iconizer.scramble(1))) {
+            failures++;
+            System.out.println("SpecIndex.clear() didn't remove everything");
+        }
+
+        l.dispose();
+        m.dispose();
+        iconizer.dispose();
+        assertEquals("failures", 0, failures);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.iconizer;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link IconStreamWriter} writes every icon correctly as raw records and as PNG sheets, and that when the
+ * seeds throw part-way through, the exception reaches the caller instead of hanging, and the writer thread is done
+ * (so its sheet and encoder were released) before that happens. This only needs libGDX's native libraries, not a
+ * backend.
+ */
+public class StreamWriterTest {
+    private static final int SIZE = 24;
+    private int failures = 0;
+
+    private void fail(String message) {
+        failures++;
+        System.out.println(message);
+    }
+
+    /**
+     * Iterates over the seeds from 0 up to {@code end}, but throws a RuntimeException instead of returning the seed
+     * {@code breakAt}, if that is less than end.
+     */
+    private static final class Seeds implements Iterator<Long> {
+        final long end, breakAt;
+        long next = 0L;
+
+        Seeds(long end, long breakAt) {
+            this.end = end;
+            this.breakAt = breakAt;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public Long next() {
+            if (next >= end) throw new NoSuchElementException();
+            if (next == breakAt) throw new IllegalStateException("Seed " + breakAt + " is broken");
+            return next++;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static boolean writerAlive() {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().equals("IconStreamWriter") && t.isAlive()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Runs a task on another thread so a hang shows up as a failure instead of stopping this check.
+     */
+    private Throwable runWithTimeout(String what, final Task task) throws InterruptedException {
+        final Throwable[] thrown = new Throwable[1];
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    thrown[0] = e;
+                }
+            }
+        }, "StreamWriterTest");
+        t.setDaemon(true);
+        t.start();
+        t.join(20000L);
+        if (t.isAlive()) {
+            fail(what + " hung.");
+            return null;
+        }
+        if (writerAlive())
+            fail(what + " returned while its writer thread was still running.");
+        return thrown[0];
+    }
+
+    private interface Task {
+        void run() throws IOException;
+    }
+
+    private int checkRecords(String what, byte[] bytes, IconCompositor compositor) {
+        final int length = IconStreamWriter.RAW_HEADER + SIZE * SIZE * 4;
+        ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN);
+        int[] expected = new int[SIZE * SIZE];
+        int records = 0;
+        while (in.remaining() >= 4 + length) {
+            if (in.getInt() != length) {
+                fail(what + ": record " + records + " has the wrong length");
+                return records;
+            }
+            long seed = in.getLong();
+            if (seed != records || in.getInt() != SIZE || in.getInt() != SIZE)
+                fail(what + ": record " + records + " has the wrong header");
+            compositor.generateInto(expected, SIZE, SIZE, seed);
+            for (int p = 0; p < expected.length; p++) {
+                if (in.getInt() != expected[p]) {
+                    fail(what + ": record " + records + " differs at pixel " + p);
+                    in.position(in.position() + (expected.length - p - 1) * 4);
+                    break;
+                }
+            }
+            records++;
+        }
+        if (in.hasRemaining())
+            fail(what + ": " + in.remaining() + " bytes after the last whole record");
+        return records;
+    }
+
+    @Test
+    public void writesEveryIcon() throws Exception {
+        GdxNativesLoader.load();
+        final IconCompositor compositor = new IconCompositor();
+        final IconStreamWriter writer = new IconStreamWriter(compositor, 2);
+
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        Throwable t = runWithTimeout("writeRaw", new Task() {
+            @Override
+            public void run() throws IOException {
+                long written = writer.writeRaw(new Seeds(150, -1), SIZE, SIZE, Channels.newChannel(raw));
+                if (written != 150) fail("writeRaw wrote " + written + " icons instead of 150");
+            }
+        });
+        if (t != null) fail("writeRaw threw " + t);
+        if (checkRecords("writeRaw", raw.toByteArray(), compositor) != 150)
+            fail("writeRaw didn't write 150 records");
+
+        final ByteArrayOutputStream broken = new ByteArrayOutputStream();
+        t = runWithTimeout("writeRaw with broken seeds", new Task() {
+            @Override
+            public void run() throws IOException {
+                writer.writeRaw(new Seeds(1000, 3 * IconStreamWriter.RAW_BATCH + 5), SIZE, SIZE,
+                        Channels.newChannel(broken));
+            }
+        });
+        if (!(t instanceof IllegalStateException))
+            fail("writeRaw with broken seeds threw " + t + " instead of the seeds' exception");
+        int records = checkRecords("writeRaw with broken seeds", broken.toByteArray(), compositor);
+        if (records != 3 * IconStreamWriter.RAW_BATCH)
+            fail("writeRaw with broken seeds wrote " + records + " records instead of every finished batch");
+
+        File dir = File.createTempFile("iconizer-sheets", "");
+        if (!dir.delete() || !dir.mkdir()) throw new IOException("Couldn't make " + dir);
+        final FileHandle sheets = new FileHandle(dir);
+        t = runWithTimeout("writeSheets", new Task() {
+            @Override
+            public void run() throws IOException {
+                long written = writer.writeSheets(new Seeds(10, -1), SIZE, SIZE, 2, 2, sheets, "full");
+                if (written != 10) fail("writeSheets wrote " + written + " icons instead of 10");
+            }
+        });
+        if (t != null) fail("writeSheets threw " + t);
+        if (sheets.list().length != 3)
+            fail("writeSheets wrote " + sheets.list().length + " sheets instead of 3");
+        Pixmap sheet = new Pixmap(sheets.child("full2.png"));
+        int[] expected = new int[SIZE * SIZE];
+        for (int cell = 0; cell < 4; cell++) {
+            if (cell < 2) compositor.generateInto(expected, SIZE, SIZE, 8 + cell);
+            else Arrays.fill(expected, 0);
+            for (int p = 0; p < expected.length; p++) {
+                int x = (cell & 1) * SIZE + p % SIZE, y = (cell >>> 1) * SIZE + p / SIZE;
+                if (sheet.getPixel(x, y) != expected[p]) {
+                    fail("writeSheets: cell " + cell + " of the last sheet differs at pixel " + p);
+                    break;
+                }
+            }
+        }
+        sheet.dispose();
+
+        t = runWithTimeout("writeSheets with broken seeds", new Task() {
+            @Override
+            public void run() throws IOException {
+                writer.writeSheets(new Seeds(1000, 9), SIZE, SIZE, 2, 2, sheets, "broken");
+            }
+        });
+        if (!(t instanceof IllegalStateException))
+            fail("writeSheets with broken seeds threw " + t + " instead of the seeds' exception");
+        int brokenSheets = 0;
+        for (FileHandle f : sheets.list()) {
+            if (f.name().startsWith("broken")) brokenSheets++;
+        }
+        if (brokenSheets != 2)
+            fail("writeSheets with broken seeds wrote " + brokenSheets + " sheets instead of 2");
+        sheets.deleteDirectory();
+
+        assertEquals("failures", 0, failures);
+    }
+}
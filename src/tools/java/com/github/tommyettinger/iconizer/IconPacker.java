@@ -0,0 +1,152 @@
+package com.github.tommyettinger.iconizer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build-time tool that packs every OpenMoji PNG named in a list of icon names into one raw binary blob, so
+ * {@link IconAtlas} can load all icons at once without decoding any PNG files at runtime, and packs the names
+ * themselves into a compact UTF-8 table for {@link IconNames}. This is run by the {@code packIcons} Gradle task; you
+ * shouldn't need to run it yourself. The list of names is {@code src/tools/icon-names.txt}, one file name per line;
+ * its order decides every icon's id, so changing it changes which icons every seed produces.
+ * <br>
+ * The blob is laid out as a header of big-endian ints (see {@link IconAtlas} for the exact fields), then one int offset
+ * per icon (in the same order as the list of names), then the bounds and coverage of each icon's left and right
+ * halves, then the raw pixel data of every icon, one after another.
+ * Only the alpha channel of each pixel is stored, one byte per pixel, because {@link Iconizer} replaces the RGB
+ * channels of every icon with a single tint color anyway.
+ */
+public final class IconPacker {
+    private IconPacker() {
+    }
+
+    /**
+     * Expects three arguments: the directory holding the OpenMoji PNG files, the text file listing their names in id
+     * order, and the directory to write {@link IconAtlas#PATH} and {@link IconNames#PATH} into.
+     * @param args the icon directory, the names file, and the output directory, in that order
+     * @throws IOException if any icon can't be read, or the output can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3)
+            throw new IllegalArgumentException("Usage: IconPacker <icon directory> <names file> <output directory>");
+        File iconDir = new File(args[0]);
+        final String[] names = readNames(new File(args[1]));
+        File outDir = new File(args[2]);
+        writeNames(names, new File(outDir, IconNames.PATH));
+        writeIcons(iconDir, names, new File(outDir, IconAtlas.PATH));
+    }
+
+    private static String[] readNames(File file) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        List<String> names = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (!line.isEmpty())
+                names.add(line);
+        }
+        if (names.size() != IconNames.COUNT)
+            throw new IOException("Expected " + IconNames.COUNT + " icon names, but " + file + " has " + names.size());
+        return names.toArray(new String[0]);
+    }
+
+    private static DataOutputStream open(File out) throws IOException {
+        File parent = out.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Could not create directory " + parent);
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out), 1 << 16));
+    }
+
+    private static void writeNames(String[] names, File out) throws IOException {
+        final byte[][] utf8 = new byte[names.length][];
+        try (DataOutputStream data = open(out)) {
+            data.writeInt(IconNames.MAGIC);
+            data.writeInt(names.length);
+            int offset = 0;
+            for (int i = 0; i < names.length; i++) {
+                data.writeInt(offset);
+                utf8[i] = names[i].getBytes(StandardCharsets.UTF_8);
+                offset += utf8[i].length;
+            }
+            data.writeInt(offset);
+            for (byte[] name : utf8) {
+                data.write(name);
+            }
+        }
+    }
+
+    private static void writeIcons(File iconDir, String[] names, File out) throws IOException {
+        final int count = names.length, size = IconAtlas.ICON_SIZE, bpp = IconAtlas.BYTES_PER_PIXEL;
+        final int iconBytes = size * size * bpp;
+        final int[] argb = new int[size * size];
+        try (DataOutputStream data = open(out)) {
+            data.writeInt(IconAtlas.MAGIC);
+            data.writeInt(IconAtlas.VERSION);
+            data.writeInt(count);
+            data.writeInt(size);
+            data.writeInt(size);
+            data.writeInt(bpp);
+            for (int i = 0; i < count; i++) {
+                data.writeInt(i * iconBytes);
+            }
+            final byte[][] masks = new byte[count][];
+            for (int i = 0; i < count; i++) {
+                File f = new File(iconDir, names[i]);
+                BufferedImage image = ImageIO.read(f);
+                if (image == null)
+                    throw new IOException("Could not decode " + f);
+                if (image.getWidth() != size || image.getHeight() != size)
+                    throw new IOException("Expected a " + size + "x" + size + " icon, but " + f + " is "
+                            + image.getWidth() + "x" + image.getHeight());
+                image.getRGB(0, 0, size, size, argb, 0, size);
+                final byte[] alpha = masks[i] = new byte[iconBytes];
+                for (int p = 0; p < argb.length; p++) {
+                    alpha[p] = (byte) (argb[p] >>> 24);
+                }
+                writeHalf(data, alpha, 0, size / 2);
+                writeHalf(data, alpha, size / 2, size);
+            }
+            for (int i = 0; i < count; i++) {
+                data.write(masks[i]);
+            }
+        }
+    }
+
+    /**
+     * Writes the bounding box of non-transparent pixels in columns {@code startX} (inclusive) to {@code endX}
+     * (exclusive) as four bytes (min x, min y, max x, max y, all inclusive), then the sum of alpha in those columns as
+     * an int. If every pixel there is transparent, the box is written as {@code startX, 0, startX - 1, -1}.
+     */
+    private static void writeHalf(DataOutputStream data, byte[] alpha, int startX, int endX) throws IOException {
+        final int size = IconAtlas.ICON_SIZE;
+        int minX = endX, minY = size, maxX = startX - 1, maxY = -1, sum = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = startX; x < endX; x++) {
+                final int a = alpha[y * size + x] & 255;
+                if (a != 0) {
+                    sum += a;
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y);
+                    maxY = y;
+                }
+            }
+        }
+        if (sum == 0) {
+            minX = startX;
+            minY = 0;
+        }
+        data.writeByte(minX);
+        data.writeByte(minY);
+        data.writeByte(maxX);
+        data.writeByte(maxY);
+        data.writeInt(sum);
+    }
+}
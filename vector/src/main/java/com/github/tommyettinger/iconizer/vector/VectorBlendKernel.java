@@ -0,0 +1,196 @@
+package com.github.tommyettinger.iconizer.vector;
+
+import com.github.tommyettinger.iconizer.BlendKernel;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link BlendKernel} that scales and blends as many pixels at once as the CPU's preferred vector size holds, using
+ * the JDK's incubating Vector API. It produces exactly the same pixels as {@link BlendKernel#SCALAR}: the float math
+ * is done in the same order, and the integer divisions in SourceOver blending are replaced by float division or by a
+ * multiply and shift, which give the same results for every value blending can produce.
+ * <br>
+ * This is registered as a service, so {@link BlendKernel#get()} picks it automatically when this module is on the
+ * classpath and the JVM was started with {@code --add-modules jdk.incubator.vector}; without that flag, this can't be
+ * loaded, and the scalar kernel is used instead. It is also skipped if vectors hold fewer than 4 ints, since it
+ * wouldn't be any faster.
+ */
+public final class VectorBlendKernel extends BlendKernel {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final int LANES = INTS.length();
+    private static final float MAGIC = 0x1p23f;
+    private static final int MAGIC_BITS = Float.floatToIntBits(MAGIC);
+    private static final ThreadLocal<Rows> ROWS = ThreadLocal.withInitial(Rows::new);
+    private static final FloatVector ZEROS = FloatVector.zero(FLOATS), ONES = FloatVector.broadcast(FLOATS, 1f);
+
+    /**
+     * Called by {@link java.util.ServiceLoader}; use {@link BlendKernel#get()} to get the kernel to use.
+     */
+    public VectorBlendKernel() {
+    }
+
+    @Override
+    public boolean isSupported() {
+        return LANES >= 4 && FLOATS.length() == LANES;
+    }
+
+    @Override
+    public String name() {
+        return "vector" + INTS.vectorBitSize();
+    }
+
+    @Override
+    public void blendRow(int[] dst, int dstIndex, int count, int tint, int[] a1, int[] a2, int[] a3, int[] a4,
+                         float[] xDiff, float yDiff, int colStart) {
+        final int bound = count - count % LANES;
+        if (bound > 0) {
+            // The JIT compiler gives up on inlining Vector API calls in a loop that does too much, and then every
+            // vector becomes an object on the heap. Each loop here only handles one channel, which stays under the
+            // limit, and the rows in between are kept in small per-thread arrays.
+            final Rows rows = ROWS.get().fit(bound);
+            final int[] src = rows.src, out = rows.out;
+            alpha(src, bound, a1, a2, a3, a4, xDiff, yDiff, colStart);
+            tint(src, bound, tint >>> 24, 24, xDiff, yDiff, colStart);
+            tint(src, bound, tint >>> 16 & 255, 16, xDiff, yDiff, colStart);
+            tint(src, bound, tint >>> 8 & 255, 8, xDiff, yDiff, colStart);
+            blendAlpha(dst, dstIndex, src, out, bound);
+            blendChannel(dst, dstIndex, src, out, bound, 24);
+            blendChannel(dst, dstIndex, src, out, bound, 16);
+            blendChannel(dst, dstIndex, src, out, bound, 8);
+            store(dst, dstIndex, src, out, bound);
+        }
+        if (bound < count) {
+            super.blendRow(dst, dstIndex + bound, count - bound, tint, a1, a2, a3, a4, xDiff, yDiff, colStart + bound);
+        }
+    }
+
+    /**
+     * Sets each of the {@code count} ints in src to the scaled alpha for that pixel.
+     */
+    private static void alpha(int[] src, int count, int[] a1, int[] a2, int[] a3, int[] a4,
+                              float[] xDiff, float yDiff, int colStart) {
+        final float oneMinusY = 1 - yDiff;
+        for (int i = 0; i < count; i += LANES) {
+            final int c = colStart + i;
+            final FloatVector xd = FloatVector.fromArray(FLOATS, xDiff, c);
+            final FloatVector oneMinusX = ONES.sub(xd);
+            truncate(samples(a1, c).mul(oneMinusX.mul(oneMinusY))
+                    .add(samples(a2, c).mul(xd.mul(oneMinusY)))
+                    .add(samples(a3, c).mul(oneMinusX.mul(yDiff)))
+                    .add(samples(a4, c).mul(xd.mul(yDiff))))
+                    .and(255)
+                    .intoArray(src, i);
+        }
+    }
+
+    /**
+     * Adds one scaled tint channel, shifted left by {@code shift}, to each of the {@code count} ints in src.
+     */
+    private static void tint(int[] src, int count, int channel, int shift, float[] xDiff, float yDiff, int colStart) {
+        final float ch = channel, oneMinusY = 1 - yDiff;
+        for (int i = 0; i < count; i += LANES) {
+            final FloatVector xd = FloatVector.fromArray(FLOATS, xDiff, colStart + i);
+            final FloatVector oneMinusX = ONES.sub(xd);
+            truncate(oneMinusX.mul(oneMinusY).mul(ch)
+                    .add(xd.mul(oneMinusY).mul(ch))
+                    .add(oneMinusX.mul(yDiff).mul(ch))
+                    .add(xd.mul(yDiff).mul(ch)))
+                    .and(255)
+                    .lanewise(VectorOperators.LSHL, shift)
+                    .or(IntVector.fromArray(INTS, src, i))
+                    .intoArray(src, i);
+        }
+    }
+
+    /**
+     * Sets each of the {@code count} ints in out to the alpha of src blended over dst.
+     */
+    private static void blendAlpha(int[] dst, int dstIndex, int[] src, int[] out, int count) {
+        for (int i = 0; i < count; i += LANES) {
+            final IntVector srcA = IntVector.fromArray(INTS, src, i).and(255);
+            coveredAlpha(IntVector.fromArray(INTS, dst, dstIndex + i).and(255), srcA).add(srcA).intoArray(out, i);
+        }
+    }
+
+    /**
+     * Adds one channel of src blended over dst, shifted left by {@code shift}, to each of the {@code count} ints in
+     * out, which must already hold the blended alphas.
+     */
+    private static void blendChannel(int[] dst, int dstIndex, int[] src, int[] out, int count, int shift) {
+        for (int i = 0; i < count; i += LANES) {
+            final IntVector over = IntVector.fromArray(INTS, src, i);
+            final IntVector under = IntVector.fromArray(INTS, dst, dstIndex + i);
+            final IntVector blended = IntVector.fromArray(INTS, out, i);
+            final IntVector srcA = over.and(255);
+            final IntVector dstA = coveredAlpha(under.and(255), srcA);
+            // Each numerator is under 2 to the 24, so it is exact as a float, and each quotient is at most 255 with a
+            // divisor at most 255, so one that isn't a whole number is at least 1/255 from one; float division and
+            // truncation give the same result as integer division.
+            truncate(toFloat(under.lanewise(VectorOperators.LSHR, shift).and(255).mul(dstA)
+                    .add(over.lanewise(VectorOperators.LSHR, shift).and(255).mul(srcA)))
+                    .div(toFloat(blended.and(255))))
+                    .lanewise(VectorOperators.LSHL, shift)
+                    .or(blended)
+                    .intoArray(out, i);
+        }
+    }
+
+    /**
+     * Copies the {@code count} blended pixels in out to dst, except where the pixel in src has alpha 0; gdx2d leaves
+     * dst alone there.
+     */
+    private static void store(int[] dst, int dstIndex, int[] src, int[] out, int count) {
+        for (int i = 0; i < count; i += LANES) {
+            final int d = dstIndex + i;
+            IntVector.fromArray(INTS, out, i)
+                    .blend(IntVector.fromArray(INTS, dst, d), IntVector.fromArray(INTS, src, i).and(255).compare(VectorOperators.EQ, 0))
+                    .intoArray(dst, d);
+        }
+    }
+
+    /**
+     * How much of the destination alpha is left after covering it with srcA; same as
+     * {@code dstA - dstA * srcA / 255} in integer math, because multiplying by 0x8081 and shifting right by 23 is the
+     * same as dividing by 255 for every product of two alphas.
+     */
+    private static IntVector coveredAlpha(IntVector dstA, IntVector srcA) {
+        return dstA.sub(dstA.mul(srcA).mul(0x8081).lanewise(VectorOperators.LSHR, 23));
+    }
+
+    private static FloatVector samples(int[] alphas, int index) {
+        return toFloat(IntVector.fromArray(INTS, alphas, index));
+    }
+
+    private static FloatVector toFloat(IntVector v) {
+        return (FloatVector) v.convert(VectorOperators.I2F, 0);
+    }
+
+    /**
+     * Same as {@code (int) x} for each x from 0 up to 2 to the 23. JDK 17 can't compile a float-to-int conversion to
+     * vector instructions, so this uses the fact that adding 2 to the 23 to such a float rounds it to a whole number,
+     * which then sits in the low bits of the sum. Rounding can go up, so it is corrected to truncate.
+     */
+    private static IntVector truncate(FloatVector x) {
+        final FloatVector rounded = x.add(MAGIC).sub(MAGIC);
+        return rounded.sub(ZEROS.blend(ONES, rounded.compare(VectorOperators.GT, x))).add(MAGIC)
+                .reinterpretAsInts().sub(MAGIC_BITS);
+    }
+
+    /**
+     * Per-thread rows of pixels between passes: the tinted pixels to blend, and the blended pixels.
+     */
+    private static final class Rows {
+        int[] src = new int[0], out = src;
+
+        Rows fit(int count) {
+            if (src.length < count) {
+                src = new int[count];
+                out = new int[count];
+            }
+            return this;
+        }
+    }
+}